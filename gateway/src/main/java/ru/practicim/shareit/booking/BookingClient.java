@@ -4,12 +4,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicim.shareit.booking.dto.BookingDecisionDto;
 import ru.practicim.shareit.booking.dto.BookingDto;
 import ru.practicim.shareit.booking.dto.State;
 import ru.practicim.shareit.client.BaseClient;
+import ru.practicim.shareit.client.ClientMode;
+import ru.practicim.shareit.client.ResponseCache;
+import ru.practicim.shareit.client.SingleFlight;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,31 +23,47 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(
+        @Value("${shareit-server.url}") String serverUrl,
+        @Value("${shareit-server.client.mode:reactive}") ClientMode mode,
+        RestTemplateBuilder builder,
+        WebClient.Builder webClientBuilder,
+        SingleFlight singleFlight,
+        ResponseCache responseCache
+    ) {
         super(
             builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
+                .build(),
+            webClientBuilder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build(),
+            mode,
+            singleFlight,
+            responseCache
         );
     }
 
-    public ResponseEntity<Object> create(long userId, BookingDto dto) {
+    public Mono<ResponseEntity<Object>> create(long userId, BookingDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> update(long userId, long bookingId, String approved) {
+    public Mono<ResponseEntity<Object>> update(long userId, long bookingId, String approved) {
         Map<String, Object> parameters = Map.of(
             "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getById(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> updateBatch(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public Mono<ResponseEntity<Object>> getById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(long userId, State state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsByUser(long userId, State state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
             "state", state.name(),
             "from", from,
@@ -50,7 +72,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingByOwner(long userId, State state, int from, int size) {
+    public Mono<ResponseEntity<Object>> getBookingByOwner(long userId, State state, int from, int size) {
         Map<String, Object> parameters = Map.of(
             "state", state.name(),
             "from", from,
@@ -58,4 +80,22 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public Mono<ResponseEntity<Object>> getBookingsByUserAfter(long userId, State state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+            "state", state.name(),
+            "cursor", cursor,
+            "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingByOwnerAfter(long userId, State state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+            "state", state.name(),
+            "cursor", cursor,
+            "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
 }
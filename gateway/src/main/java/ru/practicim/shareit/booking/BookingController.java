@@ -6,12 +6,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicim.shareit.booking.dto.BookingDecisionDto;
 import ru.practicim.shareit.booking.dto.BookingDto;
 import ru.practicim.shareit.booking.dto.State;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Validated
 @Controller
@@ -25,7 +30,7 @@ public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public Mono<ResponseEntity<Object>> create(
         @RequestHeader(USER_ID_HEADER) long userId,
         @RequestBody @Valid BookingDto requestDto
     ) {
@@ -34,7 +39,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> update(
+    public Mono<ResponseEntity<Object>> update(
         @RequestHeader(USER_ID_HEADER) long userId,
         @PathVariable long bookingId, @RequestParam String approved
     ) {
@@ -43,8 +48,17 @@ public class BookingController {
         return bookingClient.update(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> updateBatch(
+        @RequestHeader(USER_ID_HEADER) long userId,
+        @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions
+    ) {
+        log.info("Update {} bookings by user {}", decisions.size(), userId);
+        return bookingClient.updateBatch(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(
+    public Mono<ResponseEntity<Object>> getById(
         @RequestHeader(USER_ID_HEADER) long userId,
         @PathVariable Long bookingId
     ) {
@@ -53,28 +67,39 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingByOwner(
+    public Mono<ResponseEntity<Object>> getBookingByOwner(
         @RequestHeader(USER_ID_HEADER) long userId,
         @RequestParam(name = "state", defaultValue = "all") String stateParam,
         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-        @Positive @RequestParam(defaultValue = "10") int size
+        @Positive @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String cursor
     ) {
         State state = State.from(stateParam)
             .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            log.info("Get booking for item owner with state {}, userId={}, cursor={}, size={}",
+                stateParam, userId, cursor, size);
+            return bookingClient.getBookingByOwnerAfter(userId, state, cursor, size);
+        }
         log.info("Get booking for item owner with state {}, userId={}, from={}, size={}",
             userId, stateParam, from, size);
         return bookingClient.getBookingByOwner(userId, state, from, size);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsByUser(
+    public Mono<ResponseEntity<Object>> getBookingsByUser(
         @RequestHeader(USER_ID_HEADER) long userId,
         @RequestParam(name = "state", defaultValue = "all") String stateParam,
         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-        @Positive @RequestParam(defaultValue = "10") Integer size
+        @Positive @RequestParam(defaultValue = "10") Integer size,
+        @RequestParam(required = false) String cursor
     ) {
         State state = State.from(stateParam)
             .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+            return bookingClient.getBookingsByUserAfter(userId, state, cursor, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getBookingsByUser(userId, state, from, size);
     }
@@ -8,6 +8,7 @@ public enum State {
     FUTURE,
     PAST,
     REJECTED,
+    EXPIRED,
     WAITING;
 
     public static Optional<State> from(String stringState) {
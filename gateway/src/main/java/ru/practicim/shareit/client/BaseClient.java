@@ -4,95 +4,190 @@ import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Proxies requests to the server and relays its responses byte for byte.
+ * In {@link ClientMode#REACTIVE} mode the request thread is released while the server is working,
+ * so in-flight requests are bounded by connections rather than threads;
+ * in {@link ClientMode#BLOCKING} mode the returned {@link Mono} is completed on the request thread.
+ */
 public class BaseClient {
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final List<String> RELAYED_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE,
+        HttpHeaders.CONTENT_LANGUAGE,
+        HttpHeaders.LOCATION,
+        HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.ETAG,
+        HttpHeaders.LAST_MODIFIED,
+        HttpHeaders.VARY,
+        "X-Next-Cursor"
+    );
+
     protected final RestTemplate rest;
+    protected final WebClient web;
+    private final ClientMode mode;
+    private final SingleFlight singleFlight;
+    private final ResponseCache responseCache;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, WebClient web, ClientMode mode, SingleFlight singleFlight,
+                      ResponseCache responseCache) {
         this.rest = rest;
+        this.web = web;
+        this.mode = mode;
+        this.singleFlight = singleFlight;
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return singleFlight.execute(
+            coalescingKey(path, userId, parameters),
+            () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)
+        );
+    }
+
+    /**
+     * For GETs whose response does not depend on the user: identical requests from different users
+     * share one upstream call. The user id is still forwarded.
+     */
+    protected Mono<ResponseEntity<Object>> getPublic(String path, long userId,
+                                                     @Nullable Map<String, Object> parameters) {
+        return singleFlight.execute(
+            coalescingKey(path, null, parameters),
+            () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)
+        );
+    }
+
+    /**
+     * For GETs of resources the server tags with an ETag: the response is cached per user
+     * and revalidated with {@code If-None-Match} on every request.
+     */
+    protected Mono<ResponseEntity<Object>> getRevalidated(String path, @Nullable Long userId) {
+        String key = coalescingKey(path, userId, null);
+        return singleFlight.execute(key, () -> responseCache.revalidate(key, etag -> {
+            HttpHeaders headers = defaultHeaders(userId);
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            return makeAndSendRequest(HttpMethod.GET, path, headers, null, null);
+        }));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters,
-                                              T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId,
+                                                    @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters,
-                                             T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId,
+                                                   @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters,
-                                               T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId,
+                                                     @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        return makeAndSendRequest(method, path, defaultHeaders(userId), parameters, body);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, HttpHeaders headers,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        if (mode == ClientMode.REACTIVE) {
+            return exchange(method, path, headers, parameters, body);
+        }
+        return Mono.fromSupplier(() -> send(method, path, headers, parameters, body));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                      @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+            .uri(path, parameters != null ? parameters : Map.of())
+            .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.bodyToMono(byte[].class)
+            .defaultIfEmpty(EMPTY_BODY)
+            .map(bytes -> relay(response.rawStatusCode(), response.headers().asHttpHeaders(), bytes)));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                            @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return relay(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return relay(
+            shareitServerResponse.getStatusCodeValue(),
+            shareitServerResponse.getHeaders(),
+            shareitServerResponse.getBody()
+        );
+    }
+
+    private String coalescingKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        return userId != null ? uri + "#" + userId : uri.toString();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +200,22 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Passes the server's status, body bytes and end-to-end headers through without parsing the body.
+     */
+    private static ResponseEntity<Object> relay(int status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (headers != null) {
+            for (String name : RELAYED_HEADERS) {
+                List<String> values = headers.get(name);
+                if (values != null) {
+                    responseBuilder.header(name, values.toArray(String[]::new));
+                }
+            }
         }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
         }
-
-        return responseBuilder.build();
+        return responseBuilder.body(body);
     }
-}
\ No newline at end of file
+}
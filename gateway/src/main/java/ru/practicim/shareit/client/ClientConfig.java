@@ -0,0 +1,158 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateBuilderConfigurer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pools shared by all clients: one for {@link org.springframework.web.client.RestTemplate},
+ * one for {@link org.springframework.web.reactive.function.client.WebClient}, both sized and timed
+ * by the same {@code shareit-server.client.*} properties. Connections idle for {@code idle-timeout-ms}
+ * are closed in the background; keep it below the server's keep-alive timeout (20 s on Tomcat)
+ * so a pooled connection is never reused just as the server closes it.
+ * Server responses are buffered up to {@code max-response-bytes} (16 MB by default) in either mode.
+ */
+@Configuration
+public class ClientConfig {
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final int maxPending;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final int acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long timeToLiveMillis;
+    private final boolean coalesceGets;
+    private final boolean cacheResponses;
+    private final long cacheMaxBytes;
+    private final int maxResponseBytes;
+
+    public ClientConfig(
+        @Value("${shareit-server.client.max-connections:500}") int maxConnections,
+        @Value("${shareit-server.client.max-connections-per-route:500}") int maxConnectionsPerRoute,
+        @Value("${shareit-server.client.max-pending:8192}") int maxPending,
+        @Value("${shareit-server.client.connect-timeout-ms:2000}") int connectTimeoutMillis,
+        @Value("${shareit-server.client.read-timeout-ms:30000}") int readTimeoutMillis,
+        @Value("${shareit-server.client.acquire-timeout-ms:10000}") int acquireTimeoutMillis,
+        @Value("${shareit-server.client.idle-timeout-ms:15000}") long idleTimeoutMillis,
+        @Value("${shareit-server.client.time-to-live-ms:300000}") long timeToLiveMillis,
+        @Value("${shareit-server.client.coalesce-gets:true}") boolean coalesceGets,
+        @Value("${shareit-server.client.cache-responses:true}") boolean cacheResponses,
+        @Value("${shareit-server.client.cache-max-bytes:67108864}") long cacheMaxBytes,
+        @Value("${shareit-server.client.max-response-bytes:16777216}") int maxResponseBytes
+    ) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxPending = maxPending;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.coalesceGets = coalesceGets;
+        this.cacheResponses = cacheResponses;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    @Bean
+    public SingleFlight singleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight(coalesceGets, meterRegistry);
+    }
+
+    @Bean
+    public ResponseCache responseCache(MeterRegistry meterRegistry) {
+        return new ResponseCache(cacheResponses, cacheMaxBytes, meterRegistry);
+    }
+
+    @Bean
+    public ResponseSizeLimit responseSizeLimit() {
+        return new ResponseSizeLimit(maxResponseBytes);
+    }
+
+    @Bean
+    public MeteredConnectionManager httpConnectionManager(MeterRegistry meterRegistry) {
+        MeteredConnectionManager connectionManager = new MeteredConnectionManager(timeToLiveMillis, meterRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    /**
+     * Waiters for a connection are bounded by {@code acquire-timeout-ms} rather than by {@code max-pending}.
+     */
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(MeteredConnectionManager httpConnectionManager) {
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .setConnectionRequestTimeout(acquireTimeoutMillis)
+                .build())
+            .setKeepAliveStrategy((response, context) -> {
+                long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return keepAlive > 0 ? Math.min(keepAlive, idleTimeoutMillis) : idleTimeoutMillis;
+            })
+            .evictIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+            .evictExpiredConnections()
+            .build());
+    }
+
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(
+        RestTemplateBuilderConfigurer configurer,
+        ClientHttpRequestFactory clientHttpRequestFactory
+    ) {
+        return configurer.configure(new RestTemplateBuilder())
+            .requestFactory(() -> clientHttpRequestFactory);
+    }
+
+    @Bean
+    public ReactorPoolMetrics reactorPoolMetrics(MeterRegistry meterRegistry) {
+        return new ReactorPoolMetrics(meterRegistry);
+    }
+
+    /**
+     * Reactor-netty keeps a pool per remote address, so {@code max-connections-per-route} is its only size limit.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(ReactorPoolMetrics reactorPoolMetrics) {
+        return ConnectionProvider.builder("shareit-server")
+            .maxConnections(maxConnectionsPerRoute)
+            .pendingAcquireMaxCount(maxPending)
+            .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMillis))
+            .maxIdleTime(Duration.ofMillis(idleTimeoutMillis))
+            .maxLifeTime(Duration.ofMillis(timeToLiveMillis))
+            .evictInBackground(Duration.ofMillis(idleTimeoutMillis))
+            .metrics(true, () -> reactorPoolMetrics)
+            .build();
+    }
+
+    @Bean
+    public ClientHttpConnector clientHttpConnector(
+        ConnectionProvider connectionProvider,
+        ReactorPoolMetrics reactorPoolMetrics
+    ) {
+        return new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+            .responseTimeout(Duration.ofMillis(readTimeoutMillis))
+            .observe(reactorPoolMetrics));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicim.shareit.client;
+
+public enum ClientMode {
+    /**
+     * Calls the server with {@link org.springframework.web.client.RestTemplate} on the request thread.
+     */
+    BLOCKING,
+    /**
+     * Calls the server with {@link org.springframework.web.reactive.function.client.WebClient},
+     * releasing the request thread until the server responds.
+     */
+    REACTIVE
+}
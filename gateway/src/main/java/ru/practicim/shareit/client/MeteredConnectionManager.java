@@ -0,0 +1,61 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apache HttpClient connection pool that times every lease from checkout to release.
+ */
+public class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+    private final Map<HttpClientConnection, Long> leasedAt = new ConcurrentHashMap<>();
+    private final Timer leaseTimer;
+
+    public MeteredConnectionManager(long timeToLiveMillis, MeterRegistry meterRegistry) {
+        super(timeToLiveMillis, TimeUnit.MILLISECONDS);
+        this.leaseTimer = PoolMeters.register(
+            meterRegistry,
+            "httpclient",
+            () -> getTotalStats().getLeased(),
+            () -> getTotalStats().getPending(),
+            () -> getTotalStats().getMax()
+        );
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                HttpClientConnection connection = request.get(timeout, timeUnit);
+                leasedAt.put(connection, System.nanoTime());
+                return connection;
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection connection, Object state, long keepAlive, TimeUnit timeUnit) {
+        Long start = leasedAt.remove(connection);
+        if (start != null) {
+            leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        super.releaseConnection(connection, state, keepAlive, timeUnit);
+    }
+}
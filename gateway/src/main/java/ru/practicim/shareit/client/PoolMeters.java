@@ -0,0 +1,36 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.experimental.UtilityClass;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters shared by the connection pools of both client modes, tagged with the pool they describe.
+ */
+@UtilityClass
+class PoolMeters {
+    /**
+     * Registers the leased, pending and utilisation gauges and returns the timer for lease durations.
+     */
+    Timer register(MeterRegistry registry, String pool, Supplier<Number> leased, Supplier<Number> pending,
+                   Supplier<Number> max) {
+        Gauge.builder("shareit.gateway.pool.leased", leased)
+            .tag("pool", pool)
+            .register(registry);
+        Gauge.builder("shareit.gateway.pool.pending", pending)
+            .tag("pool", pool)
+            .register(registry);
+        Gauge.builder("shareit.gateway.pool.utilisation", () -> {
+            double capacity = max.get().doubleValue();
+            return capacity > 0 ? leased.get().doubleValue() / capacity : 0;
+        })
+            .tag("pool", pool)
+            .register(registry);
+        return Timer.builder("shareit.gateway.pool.lease")
+            .tag("pool", pool)
+            .register(registry);
+    }
+}
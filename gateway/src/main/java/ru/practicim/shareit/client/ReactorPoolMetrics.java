@@ -0,0 +1,62 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.AttributeKey;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reports the reactor-netty pools, one per remote address, as a single pool, and times every lease
+ * from the moment a connection is handed to a request until it goes back to the pool or is closed.
+ */
+public class ReactorPoolMetrics implements ConnectionProvider.MeterRegistrar, ConnectionObserver {
+    private static final AttributeKey<Long> LEASED_AT = AttributeKey.valueOf("shareit.gateway.leasedAt");
+
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+    private final Timer leaseTimer;
+
+    public ReactorPoolMetrics(MeterRegistry meterRegistry) {
+        this.leaseTimer = PoolMeters.register(
+            meterRegistry,
+            "reactor-netty",
+            () -> sum(ConnectionPoolMetrics::acquiredSize),
+            () -> sum(ConnectionPoolMetrics::pendingAcquireSize),
+            () -> sum(ConnectionPoolMetrics::maxAllocatedSize)
+        );
+    }
+
+    private int sum(ToIntFunction<ConnectionPoolMetrics> size) {
+        return pools.values().stream().mapToInt(size).sum();
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(id, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(id);
+    }
+
+    @Override
+    public void onStateChange(Connection connection, State newState) {
+        if (newState == State.CONFIGURED || newState == State.ACQUIRED) {
+            connection.channel().attr(LEASED_AT).setIfAbsent(System.nanoTime());
+        } else if (newState == State.RELEASED || newState == State.DISCONNECTING) {
+            Long start = connection.channel().attr(LEASED_AT).getAndSet(null);
+            if (start != null) {
+                leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
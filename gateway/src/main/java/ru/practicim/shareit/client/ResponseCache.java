@@ -0,0 +1,99 @@
+package ru.practicim.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Server responses that carry an ETag, keyed by URI and user and bounded by their total body size.
+ * An entry is never served as is: the request is always sent, with {@code If-None-Match},
+ * and a 304 is answered from the entry, so the body isn't transferred again.
+ * The hit ratio gauge is the share of requests answered from an entry.
+ */
+public class ResponseCache {
+    private final Cache<String, Entry> cache;
+    private final boolean enabled;
+    private final Counter requests;
+    private final Counter hits;
+    private final Counter bytesSaved;
+
+    public ResponseCache(boolean enabled, long maximumBytes, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((String key, Entry entry) -> key.length() + entry.body.length)
+            .build();
+        this.requests = Counter.builder("shareit.gateway.response-cache.requests")
+            .register(meterRegistry);
+        this.hits = Counter.builder("shareit.gateway.response-cache.hits")
+            .register(meterRegistry);
+        this.bytesSaved = Counter.builder("shareit.gateway.response-cache.bytes-saved")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("shareit.gateway.response-cache.hit-ratio", this, ResponseCache::hitRatio)
+            .register(meterRegistry);
+        Gauge.builder("shareit.gateway.response-cache.size", cache, Cache::estimatedSize)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Sends {@code call} with the tag of the cached response, if any, and answers a 304 from the cache.
+     * A 200 with an ETag replaces the entry; any other response drops it.
+     */
+    public Mono<ResponseEntity<Object>> revalidate(String key, Function<String, Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.apply(null);
+        }
+        return Mono.defer(() -> {
+            requests.increment();
+            Entry cached = cache.getIfPresent(key);
+            return call.apply(cached != null ? cached.etag : null)
+                .map(response -> {
+                    if (cached != null && response.getStatusCodeValue() == 304) {
+                        hits.increment();
+                        bytesSaved.increment(cached.body.length);
+                        return cached.toResponse();
+                    }
+                    store(key, response);
+                    return response;
+                });
+        });
+    }
+
+    private void store(String key, ResponseEntity<Object> response) {
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCodeValue() == 200 && etag != null && response.getBody() instanceof byte[]) {
+            cache.put(key, new Entry(etag, response.getHeaders(), (byte[]) response.getBody()));
+        } else {
+            cache.invalidate(key);
+        }
+    }
+
+    private double hitRatio() {
+        double total = requests.count();
+        return total > 0 ? hits.count() / total : 0;
+    }
+
+    private static class Entry {
+        private final String etag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        Entry(String etag, HttpHeaders headers, byte[] body) {
+            this.etag = etag;
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            this.body = body;
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
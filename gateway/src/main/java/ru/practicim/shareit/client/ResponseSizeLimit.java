@@ -0,0 +1,23 @@
+package ru.practicim.shareit.client;
+
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Caps how much of a server response {@link WebClient} buffers. Relayed bodies are buffered whole, because
+ * coalesced callers and the response cache share the same bytes, so the codec default of 256 KB
+ * would turn large list responses into errors. A response over the cap fails with
+ * {@link org.springframework.core.io.buffer.DataBufferLimitException}, which the gateway answers with 502.
+ */
+public class ResponseSizeLimit implements WebClientCustomizer {
+    private final int maxBytes;
+
+    public ResponseSizeLimit(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void customize(WebClient.Builder webClientBuilder) {
+        webClientBuilder.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxBytes));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical requests that are in flight at the same time: the first caller for a key sends
+ * the request and every caller that arrives before its response shares that response.
+ * Only idempotent requests may go through here. The ratio gauge is the share of requests that were served
+ * by another caller's upstream call.
+ */
+public class SingleFlight {
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter requests;
+    private final Counter upstream;
+
+    public SingleFlight(boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.requests = Counter.builder("shareit.gateway.coalescing.requests")
+            .register(meterRegistry);
+        this.upstream = Counter.builder("shareit.gateway.coalescing.upstream")
+            .register(meterRegistry);
+        FunctionCounter.builder("shareit.gateway.coalescing.coalesced", this,
+            singleFlight -> singleFlight.requests.count() - singleFlight.upstream.count())
+            .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, SingleFlight::ratio)
+            .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.in-flight", inFlight, Map::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the response of the call already in flight for {@code key}, or starts {@code call} and shares it.
+     * The shared call is not cancelled when one of its callers goes away, only once all of them have;
+     * either way, and on completion or error, the key is released for the next call.
+     * The key is released before the response reaches the callers, so a caller arriving after it
+     * starts a new call instead of joining the finished one.
+     */
+    public Mono<ResponseEntity<Object>> execute(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            requests.increment();
+            return inFlight.computeIfAbsent(key, k -> {
+                upstream.increment();
+                AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+                Runnable release = () -> inFlight.remove(k, self.get());
+                Mono<ResponseEntity<Object>> shared = call.get()
+                    .doOnSuccess(response -> release.run())
+                    .doOnError(error -> release.run())
+                    .doOnCancel(release)
+                    .share();
+                self.set(shared);
+                return shared;
+            });
+        });
+    }
+
+    private double ratio() {
+        double total = requests.count();
+        return total > 0 ? (total - upstream.count()) / total : 0;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicim.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -22,6 +23,13 @@ public class ErrorHandler {
         return new ErrorDto(message);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public ErrorDto handleResponseTooLarge(final DataBufferLimitException e) {
+        log.warn("Server response is too large to relay: {}", e.getMessage());
+        return new ErrorDto(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorDto handleException(final RuntimeException e) {
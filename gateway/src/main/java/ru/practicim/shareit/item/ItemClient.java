@@ -3,14 +3,25 @@ package ru.practicim.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicim.shareit.client.BaseClient;
+import ru.practicim.shareit.client.ClientMode;
+import ru.practicim.shareit.client.ResponseCache;
+import ru.practicim.shareit.client.SingleFlight;
 import ru.practicim.shareit.comment.CommentDto;
 import ru.practicim.shareit.item.dto.ItemDto;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,43 +29,89 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(
+        @Value("${shareit-server.url}") String serverUrl,
+        @Value("${shareit-server.client.mode:reactive}") ClientMode mode,
+        RestTemplateBuilder builder,
+        WebClient.Builder webClientBuilder,
+        SingleFlight singleFlight,
+        ResponseCache responseCache
+    ) {
         super(
             builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
+                .build(),
+            webClientBuilder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build(),
+            mode,
+            singleFlight,
+            responseCache
         );
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto dto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> update(long itemId, long userId, ItemDto dto) {
+    /**
+     * Sends already validated NDJSON lines to the server and returns its NDJSON results, one per line.
+     */
+    public String importBatch(long userId, String lines) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8));
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return rest.exchange("/bulk", HttpMethod.POST, new HttpEntity<>(lines, headers), String.class).getBody();
+    }
+
+    public Mono<ResponseEntity<Object>> update(long itemId, long userId, ItemDto dto) {
         return patch("/" + itemId, userId, dto);
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long itemId) {
+        return getRevalidated("/" + itemId, userId);
     }
 
-    public void deleteById(long userId, long itemId) {
-        delete("/" + itemId, userId);
+    public Mono<Void> deleteById(long userId, long itemId) {
+        return delete("/" + itemId, userId).then();
     }
 
-    public ResponseEntity<Object> getUserItems(long userId) {
+    public Mono<ResponseEntity<Object>> getUserItems(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchByText(long userId, String text) {
+    public Mono<ResponseEntity<Object>> searchByText(long userId, String text, int from, int size, boolean fuzzy) {
+        Map<String, Object> parameters = Map.of(
+            "text", text,
+            "from", from,
+            "size", size,
+            "fuzzy", fuzzy
+        );
+        return getPublic("/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> suggest(long userId, String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+            "prefix", prefix,
+            "size", size
+        );
+        return getPublic("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> findAvailable(long userId, LocalDateTime start, LocalDateTime end, String text,
+                                                      int from, int size) {
         Map<String, Object> parameters = Map.of(
-            "text", text
+            "start", start,
+            "end", end,
+            "text", text,
+            "from", from,
+            "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return getPublic("/available?start={start}&end={end}&text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto dto) {
+    public Mono<ResponseEntity<Object>> createComment(long userId, long itemId, CommentDto dto) {
         return post("/" + itemId + "/comment", userId, dto);
     }
 }
@@ -2,23 +2,36 @@ package ru.practicim.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicim.shareit.comment.CommentDto;
 import ru.practicim.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemClient client;
+    private final ItemImporter importer;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createItem(
+    public Mono<ResponseEntity<Object>> createItem(
         @Valid @RequestBody ItemDto dto,
         @RequestHeader(USER_ID_HEADER) Long owner
     ) {
@@ -26,8 +39,18 @@ public class ItemController {
         return client.create(owner, dto);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createItems(
+        @RequestHeader(USER_ID_HEADER) Long owner,
+        InputStream body,
+        HttpServletResponse response
+    ) throws IOException {
+        log.info("Request to import items for user {}.", owner);
+        importer.importItems(owner, body, response);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
         @RequestBody ItemDto dto,
         @PathVariable Long itemId,
         @RequestHeader(USER_ID_HEADER) Long user
@@ -37,7 +60,7 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(
+    public Mono<ResponseEntity<Object>> getItemById(
         @PathVariable Long itemId,
         @RequestHeader(USER_ID_HEADER) Long user
     ) {
@@ -46,31 +69,61 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public void deleteItemById(
+    public Mono<Void> deleteItemById(
         @PathVariable Long itemId,
         @RequestHeader(USER_ID_HEADER) Long user
     ) {
         log.info("Request to delete item {}.", itemId);
-        client.deleteById(user, itemId);
+        return client.deleteById(user, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItems(@RequestHeader(USER_ID_HEADER) Long owner) {
+    public Mono<ResponseEntity<Object>> getUserItems(@RequestHeader(USER_ID_HEADER) Long owner) {
         log.info("Request to receive user {}' items.", owner);
         return client.getUserItems(owner);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(
+    public Mono<ResponseEntity<Object>> search(
         @RequestParam String text,
+        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+        @Positive @RequestParam(defaultValue = "10") int size,
+        @RequestParam(defaultValue = "false") boolean fuzzy,
+        @RequestHeader(USER_ID_HEADER) Long user
+    ) {
+        log.info("Request to search items by \"{}\", from={}, size={}, fuzzy={}.", text, from, size, fuzzy);
+        return client.searchByText(user, text, from, size, fuzzy);
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Object>> suggest(
+        @RequestParam String prefix,
+        @Positive @Max(10) @RequestParam(defaultValue = "10") int size,
+        @RequestHeader(USER_ID_HEADER) Long user
+    ) {
+        log.debug("Request to suggest item names by \"{}\", size={}.", prefix, size);
+        return client.suggest(user, prefix, size);
+    }
+
+    @GetMapping("/available")
+    public Mono<ResponseEntity<Object>> findAvailable(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+        @RequestParam(defaultValue = "") String text,
+        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+        @Positive @RequestParam(defaultValue = "10") int size,
         @RequestHeader(USER_ID_HEADER) Long user
     ) {
-        log.info("Request to search items by \"{}\".", text);
-        return client.searchByText(user, text);
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End of the period must be after its start.");
+        }
+        log.info("Request to find items available from {} to {} by \"{}\", from={}, size={}.",
+            start, end, text, from, size);
+        return client.findAvailable(user, start, end, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(
+    public Mono<ResponseEntity<Object>> createComment(
         @Valid @RequestBody CommentDto dto,
         @PathVariable Long itemId,
         @RequestHeader(USER_ID_HEADER) Long userId
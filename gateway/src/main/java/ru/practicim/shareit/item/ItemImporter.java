@@ -0,0 +1,150 @@
+package ru.practicim.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import ru.practicim.shareit.item.dto.ItemDto;
+import ru.practicim.shareit.item.dto.ItemImportResult;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Validates an NDJSON item stream line by line and forwards the valid lines to the server in batches,
+ * streaming back one result per input line in input order. Only one batch is held in memory at a time.
+ * An error on the first batch, such as an unknown owner, is relayed as the whole response;
+ * later server errors are reported on the lines of the failed batch.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    private final ItemClient client;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public ItemImporter(
+        ItemClient client,
+        ObjectMapper objectMapper,
+        Validator validator,
+        @Value("${shareit.item.bulk.batch-size:500}") int batchSize
+    ) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    public void importItems(long userId, InputStream in, HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Batch batch = new Batch();
+        Writer writer = null;
+        long lineNumber = 0;
+        String line;
+        do {
+            line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(lineNumber, line);
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            }
+            List<ItemImportResult> results;
+            try {
+                results = batch.send(userId);
+            } catch (HttpStatusCodeException e) {
+                if (writer == null) {
+                    response.setStatus(e.getRawStatusCode());
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    response.getOutputStream().write(e.getResponseBodyAsByteArray());
+                    return;
+                }
+                results = batch.fail(e.getRawStatusCode(), e.getResponseBodyAsString());
+            }
+            if (writer == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            }
+            for (ItemImportResult result : results) {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.write('\n');
+            }
+            writer.flush();
+            batch = new Batch();
+        } while (line != null);
+        log.info("Forwarded {} lines of user {} for import.", lineNumber, userId);
+    }
+
+    private class Batch {
+        private final Map<Long, ItemImportResult> results = new TreeMap<>();
+        private final Map<Long, String> valid = new TreeMap<>();
+
+        int size() {
+            return results.size() + valid.size();
+        }
+
+        void add(long line, String text) {
+            ItemDto dto;
+            try {
+                dto = objectMapper.readValue(text, ItemDto.class);
+            } catch (JsonProcessingException e) {
+                results.put(line, ItemImportResult.failed(line, 400, "Malformed item: " + e.getOriginalMessage()));
+                return;
+            }
+            Set<ConstraintViolation<ItemDto>> violations = validator.validate(dto);
+            if (violations.isEmpty()) {
+                valid.put(line, text);
+                return;
+            }
+            String error = violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+            results.put(line, ItemImportResult.failed(line, 400, error));
+        }
+
+        List<ItemImportResult> send(long userId) throws JsonProcessingException {
+            if (!valid.isEmpty()) {
+                List<Long> lines = new ArrayList<>(valid.keySet());
+                String body = client.importBatch(userId, String.join("\n", valid.values()));
+                for (String result : body.split("\n")) {
+                    if (!result.isBlank()) {
+                        ItemImportResult forwarded = objectMapper.readValue(result, ItemImportResult.class);
+                        long line = lines.get((int) forwarded.getLine() - 1);
+                        results.put(line, forwarded.atLine(line));
+                    }
+                }
+            }
+            return new ArrayList<>(results.values());
+        }
+
+        List<ItemImportResult> fail(int status, String error) {
+            valid.keySet().forEach(line -> results.put(line, ItemImportResult.failed(line, status, error)));
+            return new ArrayList<>(results.values());
+        }
+    }
+}
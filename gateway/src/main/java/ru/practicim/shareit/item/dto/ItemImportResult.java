@@ -0,0 +1,21 @@
+package ru.practicim.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    long line;
+    int status;
+    Long id;
+    String error;
+
+    public static ItemImportResult failed(long line, int status, String error) {
+        return new ItemImportResult(line, status, null, error);
+    }
+
+    public ItemImportResult atLine(long originalLine) {
+        return new ItemImportResult(originalLine, status, id, error);
+    }
+}
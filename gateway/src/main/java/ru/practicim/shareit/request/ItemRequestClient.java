@@ -4,10 +4,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicim.shareit.client.BaseClient;
+import ru.practicim.shareit.client.ClientMode;
+import ru.practicim.shareit.client.ResponseCache;
+import ru.practicim.shareit.client.SingleFlight;
 import ru.practicim.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -17,28 +21,40 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(
+        @Value("${shareit-server.url}") String serverUrl,
+        @Value("${shareit-server.client.mode:reactive}") ClientMode mode,
+        RestTemplateBuilder builder,
+        WebClient.Builder webClientBuilder,
+        SingleFlight singleFlight,
+        ResponseCache responseCache
+    ) {
         super(
             builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
+                .build(),
+            webClientBuilder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build(),
+            mode,
+            singleFlight,
+            responseCache
         );
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestDto dto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemRequestDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getUserRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId) {
+    public Mono<ResponseEntity<Object>> getAll(long userId) {
         return get("/all", userId);
     }
 
-    public ResponseEntity<Object> getPaginatedRequests(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getPaginatedRequests(long userId, int from, int size) {
         Map<String, Object> params = Map.of(
             "from", from,
             "size", size
@@ -46,7 +62,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long requestId) {
+        return getRevalidated("/" + requestId, userId);
     }
 }
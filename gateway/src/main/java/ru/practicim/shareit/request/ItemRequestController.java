@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicim.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -19,7 +20,7 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(
+    public Mono<ResponseEntity<Object>> createItemRequest(
         @Valid @RequestBody ItemRequestDto dto,
         @RequestHeader(USER_ID_HEADER) Long userId
     ) {
@@ -28,7 +29,7 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(
+    public Mono<ResponseEntity<Object>> getUserRequests(
         @RequestHeader(USER_ID_HEADER) Long userId
     ) {
         log.info("Request to get item requests.");
@@ -36,7 +37,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getPaginatedRequests(
+    public Mono<ResponseEntity<Object>> getPaginatedRequests(
         @PositiveOrZero @RequestParam(value = "from", required = false) Integer from,
         @Positive @RequestParam(value = "size", required = false) Integer size,
         @RequestHeader(USER_ID_HEADER) Long userId
@@ -49,7 +50,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("{requestId}")
-    public ResponseEntity<Object> getItemRequest(
+    public Mono<ResponseEntity<Object>> getItemRequest(
         @PathVariable("requestId") Long requestId,
         @RequestHeader(USER_ID_HEADER) Long userId
     ) {
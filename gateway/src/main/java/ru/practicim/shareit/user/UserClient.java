@@ -4,10 +4,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicim.shareit.client.BaseClient;
+import ru.practicim.shareit.client.ClientMode;
+import ru.practicim.shareit.client.ResponseCache;
+import ru.practicim.shareit.client.SingleFlight;
 import ru.practicim.shareit.user.dto.UserDto;
 
 @Service
@@ -15,32 +19,44 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(
+        @Value("${shareit-server.url}") String serverUrl,
+        @Value("${shareit-server.client.mode:reactive}") ClientMode mode,
+        RestTemplateBuilder builder,
+        WebClient.Builder webClientBuilder,
+        SingleFlight singleFlight,
+        ResponseCache responseCache
+    ) {
         super(
             builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
+                .build(),
+            webClientBuilder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build(),
+            mode,
+            singleFlight,
+            responseCache
         );
     }
 
-    public ResponseEntity<Object> create(UserDto dto) {
+    public Mono<ResponseEntity<Object>> create(UserDto dto) {
         return post("", dto);
     }
 
-    public ResponseEntity<Object> update(long userId, UserDto dto) {
+    public Mono<ResponseEntity<Object>> update(long userId, UserDto dto) {
         return patch("/" + userId, dto);
     }
 
-    public ResponseEntity<Object> getById(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getById(long userId) {
+        return getRevalidated("/" + userId, null);
     }
 
-    public void deleteById(long userId) {
-        delete("/" + userId);
+    public Mono<Void> deleteById(long userId) {
+        return delete("/" + userId).then();
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicim.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -16,13 +17,13 @@ public class UserController {
     private final UserClient client;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto dto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto dto) {
         log.info("Request to create user.");
         return client.create(dto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(
+    public Mono<ResponseEntity<Object>> updateUser(
         @RequestBody UserDto dto,
         @PathVariable Long userId
     ) {
@@ -31,19 +32,19 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("Request to receive user {}.", userId);
         return client.getById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUserById(@PathVariable Long userId) {
+    public Mono<Void> deleteUserById(@PathVariable Long userId) {
         log.info("Request to delete user {}", userId);
-        client.deleteById(userId);
+        return client.deleteById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Request to get all users.");
         return client.getAll();
     }
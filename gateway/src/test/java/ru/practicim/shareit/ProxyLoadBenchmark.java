@@ -0,0 +1,100 @@
+package ru.practicim.shareit;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicim.shareit.client.ClientMode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how many requests one gateway keeps in flight at once in each {@link ClientMode}.
+ * A stub server answers {@code GET /items/{id}} after {@value #DELAY_MS} ms without holding a thread
+ * and tracks how many requests it is serving at the same time. Each round opens {@code concurrency}
+ * connections to the gateway and sends one request on each at once. A gateway that holds them all
+ * finishes the round in about one delay with the stub's peak equal to the concurrency; otherwise requests
+ * queue behind blocked threads or busy connections and the round takes several delays.
+ * A mode stops escalating after a round with requests that did not finish in {@value #DEADLINE_SECONDS} s.
+ * The load client, gateway and stub share one process, so every request holds four sockets of its file limit.
+ * Run with {@code main} from the test classpath.
+ */
+public class ProxyLoadBenchmark {
+    private static final long DELAY_MS = 200;
+    private static final long DEADLINE_SECONDS = 30;
+    private static final int[] CONCURRENCY = {100, 500, 1000, 2000};
+    private static final String ITEM = "{\"id\":1,\"name\":\"drill\",\"description\":\"drill\",\"available\":true}";
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peak = new AtomicInteger();
+
+    public static void main(String[] args) {
+        DisposableServer stub = HttpServer.create()
+            .host("localhost")
+            .port(0)
+            .route(routes -> routes.get("/items/{id}", (request, response) -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return response
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.delay(Duration.ofMillis(DELAY_MS))
+                        .map(tick -> ITEM)
+                        .doFinally(signal -> inFlight.decrementAndGet()));
+            }))
+            .bindNow();
+        System.out.printf("%-9s %11s %9s %7s %13s %9s%n", "mode", "concurrency", "completed", "failed", "peak upstream",
+            "round ms");
+        for (ClientMode mode : ClientMode.values()) {
+            try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareitGateway.class)
+                .run(
+                    "--server.port=0",
+                    "--shareit-server.url=http://localhost:" + stub.port(),
+                    "--shareit-server.client.mode=" + mode,
+                    "--logging.level.root=WARN",
+                    "--logging.level.org.springframework.web.client.RestTemplate=WARN"
+                )) {
+                int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+                for (int concurrency : CONCURRENCY) {
+                    if (!round(mode, port, concurrency)) {
+                        break;
+                    }
+                }
+            }
+        }
+        stub.disposeNow();
+    }
+
+    private static boolean round(ClientMode mode, int port, int concurrency) {
+        ConnectionProvider connections = ConnectionProvider.builder("load")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        HttpClient client = HttpClient.create(connections)
+            .baseUrl("http://localhost:" + port)
+            .headers(headers -> headers.set("X-Sharer-User-Id", "1"))
+            .responseTimeout(Duration.ofSeconds(DEADLINE_SECONDS));
+        peak.set(0);
+        long start = System.nanoTime();
+        List<Integer> statuses = Flux.range(1, concurrency)
+            .flatMap(id -> client.get()
+                .uri("/items/" + id)
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                .onErrorReturn(0), concurrency)
+            .collectList()
+            .block();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        connections.disposeLater().block();
+        long completed = statuses.stream().filter(status -> status == 200).count();
+        System.out.printf("%-9s %11d %9d %7d %13d %9d%n", mode, concurrency, completed, concurrency - completed,
+            peak.get(), elapsed);
+        return completed == concurrency;
+    }
+}
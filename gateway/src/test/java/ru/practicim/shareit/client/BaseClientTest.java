@@ -0,0 +1,171 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BaseClientTest {
+    private static final int MAX_RESPONSE_BYTES = 1 << 20;
+
+    private MockWebServer server;
+
+    private BaseClient client(ClientMode mode) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        String serverUrl = server.url("/bookings").toString();
+        WebClient.Builder webClientBuilder = WebClient.builder();
+        new ResponseSizeLimit(MAX_RESPONSE_BYTES).customize(webClientBuilder);
+        return new BaseClient(
+            new RestTemplateBuilder().uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl)).build(),
+            webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl)).build(),
+            mode,
+            new SingleFlight(true, meterRegistry),
+            new ResponseCache(true, 1 << 20, meterRegistry)
+        );
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void successfulResponseIsRelayedTest(ClientMode mode) throws InterruptedException {
+        server.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setHeader("Cache-Control", "no-cache")
+            .setHeader("X-Next-Cursor", "abc")
+            .setHeader("Set-Cookie", "session=1")
+            .setBody("[{\"id\":1}]"));
+
+        ResponseEntity<Object> response = client(mode).get("?state={state}", 7L, Map.of("state", "ALL")).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.SET_COOKIE));
+        assertEquals("[{\"id\":1}]", body(response));
+        RecordedRequest request = server.takeRequest();
+        assertEquals("GET", request.getMethod());
+        assertEquals("/bookings?state=ALL", request.getPath());
+        assertEquals("7", request.getHeader("X-Sharer-User-Id"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void createdResponseWithLocationIsRelayedTest(ClientMode mode) throws InterruptedException {
+        server.enqueue(new MockResponse()
+            .setResponseCode(201)
+            .setHeader("Content-Type", "application/json")
+            .setHeader("Location", "/bookings/5")
+            .setBody("{\"id\":5}"));
+
+        ResponseEntity<Object> response = client(mode).post("", 7L, Map.of("itemId", 1)).block();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("/bookings/5", response.getHeaders().getLocation().toString());
+        assertEquals("{\"id\":5}", body(response));
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("{\"itemId\":1}", request.getBody().readUtf8());
+        assertEquals("application/json", request.getHeader("Content-Type"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void clientErrorIsRelayedTest(ClientMode mode) {
+        server.enqueue(new MockResponse()
+            .setResponseCode(404)
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"error\":\"Booking 9 is not found.\"}"));
+
+        ResponseEntity<Object> response = client(mode).patch("/9?approved=true", 7L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"error\":\"Booking 9 is not found.\"}", body(response));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void serverErrorIsRelayedTest(ClientMode mode) {
+        server.enqueue(new MockResponse()
+            .setResponseCode(500)
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"error\":\"Internal error\"}"));
+
+        ResponseEntity<Object> response = client(mode).get("/1", 7L).block();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("{\"error\":\"Internal error\"}", body(response));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void emptyResponseIsRelayedWithoutBodyTest(ClientMode mode) throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        ResponseEntity<Object> response = client(mode).delete("/1", 7L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("DELETE", server.takeRequest().getMethod());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void responseOverCodecDefaultIsRelayedTest(ClientMode mode) {
+        String large = "{\"text\":\"" + "x".repeat(300 * 1024) + "\"}";
+        server.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(large));
+
+        ResponseEntity<Object> response = client(mode).get("/1", 7L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(large, body(response));
+    }
+
+    @Test
+    void responseOverLimitFailsTest() {
+        server.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody("\"" + "x".repeat(MAX_RESPONSE_BYTES) + "\""));
+
+        assertThrows(DataBufferLimitException.class, () -> client(ClientMode.REACTIVE).get("/1", 7L).block());
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ResponseCacheTest {
+    private static final String KEY = "/items/1#1";
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private MeterRegistry meterRegistry;
+    private ResponseCache cache;
+    private List<String> sentTags;
+
+    private static ResponseEntity<Object> ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).body(BODY);
+    }
+
+    private static ResponseEntity<Object> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private Function<String, Mono<ResponseEntity<Object>>> upstream(ResponseEntity<Object> response) {
+        return etag -> {
+            sentTags.add(etag);
+            return Mono.just(response);
+        };
+    }
+
+    private double meter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ResponseCache(true, 1024, meterRegistry);
+        sentTags = new ArrayList<>();
+    }
+
+    @Test
+    void notModifiedIsAnsweredFromCacheTest() {
+        StepVerifier.create(cache.revalidate(KEY, upstream(ok("\"v1\""))))
+            .expectNextMatches(response -> response.getStatusCode() == HttpStatus.OK)
+            .verifyComplete();
+        StepVerifier.create(cache.revalidate(KEY, upstream(notModified("\"v1\""))))
+            .assertNext(response -> {
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals("\"v1\"", response.getHeaders().getETag());
+                assertArrayEquals(BODY, (byte[]) response.getBody());
+            })
+            .verifyComplete();
+
+        assertNull(sentTags.get(0));
+        assertEquals("\"v1\"", sentTags.get(1));
+        assertEquals(2, meter("shareit.gateway.response-cache.requests"));
+        assertEquals(1, meter("shareit.gateway.response-cache.hits"));
+        assertEquals(BODY.length, meter("shareit.gateway.response-cache.bytes-saved"));
+        assertEquals(0.5, meterRegistry.get("shareit.gateway.response-cache.hit-ratio").gauge().value());
+    }
+
+    @Test
+    void changedResponseReplacesEntryTest() {
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+        cache.revalidate(KEY, upstream(ok("\"v2\""))).block();
+        cache.revalidate(KEY, upstream(notModified("\"v2\""))).block();
+
+        assertEquals(List.of("\"v1\"", "\"v2\""), sentTags.subList(1, 3));
+        assertEquals(1, meter("shareit.gateway.response-cache.hits"));
+    }
+
+    @Test
+    void errorDropsEntryTest() {
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+        StepVerifier.create(cache.revalidate(KEY, upstream(ResponseEntity.status(HttpStatus.NOT_FOUND).build())))
+            .expectNextMatches(response -> response.getStatusCode() == HttpStatus.NOT_FOUND)
+            .verifyComplete();
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+
+        assertNull(sentTags.get(2));
+    }
+
+    @Test
+    void responseWithoutEtagIsNotCachedTest() {
+        cache.revalidate(KEY, upstream(ResponseEntity.ok().body(BODY))).block();
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+
+        assertNull(sentTags.get(1));
+    }
+
+    @Test
+    void entriesArePerKeyTest() {
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+        cache.revalidate("/items/1#2", upstream(ok("\"v1\""))).block();
+
+        assertNull(sentTags.get(1));
+    }
+
+    @Test
+    void disabledCacheSendsNoTagTest() {
+        cache = new ResponseCache(false, 1024, new SimpleMeterRegistry());
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+        cache.revalidate(KEY, upstream(ok("\"v1\""))).block();
+
+        assertNull(sentTags.get(0));
+        assertNull(sentTags.get(1));
+    }
+
+    @Test
+    void notModifiedWithoutEntryIsRelayedTest() {
+        StepVerifier.create(cache.revalidate(KEY, upstream(notModified("\"v1\""))))
+            .expectNextMatches(response -> response.getStatusCode() == HttpStatus.NOT_MODIFIED)
+            .verifyComplete();
+
+        assertEquals(0, meter("shareit.gateway.response-cache.hits"));
+    }
+}
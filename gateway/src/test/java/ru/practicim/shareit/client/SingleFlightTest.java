@@ -0,0 +1,178 @@
+package ru.practicim.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+    private static final String KEY = "/items/1#1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+    private static final ResponseEntity<Object> OK = ResponseEntity.ok("{\"id\":1}".getBytes());
+
+    private MeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private AtomicInteger calls;
+    private AtomicBoolean cancelled;
+    private Sinks.One<ResponseEntity<Object>> upstream;
+
+    private Supplier<Mono<ResponseEntity<Object>>> call() {
+        return () -> {
+            calls.incrementAndGet();
+            return upstream.asMono().doOnCancel(() -> cancelled.set(true));
+        };
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("shareit.gateway.coalescing.in-flight").gauge().value();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(true, meterRegistry);
+        calls = new AtomicInteger();
+        cancelled = new AtomicBoolean();
+        upstream = Sinks.one();
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamCallTest() {
+        StepVerifier first = StepVerifier.create(singleFlight.execute(KEY, call()))
+            .expectNext(OK)
+            .expectComplete()
+            .verifyLater();
+        StepVerifier second = StepVerifier.create(singleFlight.execute(KEY, call()))
+            .expectNext(OK)
+            .expectComplete()
+            .verifyLater();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, inFlight());
+        upstream.tryEmitValue(OK);
+        first.verify(TIMEOUT);
+        second.verify(TIMEOUT);
+
+        assertEquals(2, counter("shareit.gateway.coalescing.requests"));
+        assertEquals(1, counter("shareit.gateway.coalescing.upstream"));
+        assertEquals(1, meterRegistry.get("shareit.gateway.coalescing.coalesced").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("shareit.gateway.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void differentKeysAreNotCoalescedTest() {
+        upstream.tryEmitValue(OK);
+
+        StepVerifier.create(singleFlight.execute(KEY, call())).expectNext(OK).verifyComplete();
+        StepVerifier.create(singleFlight.execute("/items/1#2", call())).expectNext(OK).verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void keyIsReleasedOnCompletionTest() {
+        StepVerifier first = StepVerifier.create(singleFlight.execute(KEY, call()))
+            .expectNext(OK)
+            .expectComplete()
+            .verifyLater();
+        upstream.tryEmitValue(OK);
+        first.verify(TIMEOUT);
+
+        assertEquals(0, inFlight());
+        StepVerifier.create(singleFlight.execute(KEY, call())).expectNext(OK).verifyComplete();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void callerArrivingRightAfterResponseStartsNewCallTest() {
+        StepVerifier first = StepVerifier.create(singleFlight.execute(KEY, call())
+                .doOnNext(response -> singleFlight.execute(KEY, call()).subscribe()))
+            .expectNext(OK)
+            .expectComplete()
+            .verifyLater();
+        upstream.tryEmitValue(OK);
+        first.verify(TIMEOUT);
+
+        assertEquals(2, calls.get());
+        assertEquals(2, counter("shareit.gateway.coalescing.upstream"));
+    }
+
+    @Test
+    void keyIsReleasedOnErrorTest() {
+        StepVerifier first = StepVerifier.create(singleFlight.execute(KEY, call()))
+            .expectError(IllegalStateException.class)
+            .verifyLater();
+        StepVerifier second = StepVerifier.create(singleFlight.execute(KEY, call()))
+            .expectError(IllegalStateException.class)
+            .verifyLater();
+        upstream.tryEmitError(new IllegalStateException("Server is unavailable."));
+        first.verify(TIMEOUT);
+        second.verify(TIMEOUT);
+
+        assertEquals(1, calls.get());
+        assertEquals(0, inFlight());
+        upstream = Sinks.one();
+        upstream.tryEmitValue(OK);
+        StepVerifier.create(singleFlight.execute(KEY, call())).expectNext(OK).verifyComplete();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void oneCallerCancellingKeepsSharedCallTest() {
+        StepVerifier staying = StepVerifier.create(singleFlight.execute(KEY, call()))
+            .expectNext(OK)
+            .expectComplete()
+            .verifyLater();
+        StepVerifier.create(singleFlight.execute(KEY, call()))
+            .thenCancel()
+            .verify(TIMEOUT);
+
+        assertFalse(cancelled.get());
+        assertEquals(1, inFlight());
+        upstream.tryEmitValue(OK);
+        staying.verify(TIMEOUT);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void allCallersCancellingCancelsUpstreamAndReleasesKeyTest() {
+        StepVerifier.create(singleFlight.execute(KEY, call()))
+            .thenCancel()
+            .verify(TIMEOUT);
+
+        assertTrue(cancelled.get());
+        assertEquals(0, inFlight());
+        upstream = Sinks.one();
+        upstream.tryEmitValue(OK);
+        StepVerifier.create(singleFlight.execute(KEY, call())).expectNext(OK).verifyComplete();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void disabledSingleFlightCallsUpstreamEveryTimeTest() {
+        singleFlight = new SingleFlight(false, new SimpleMeterRegistry());
+        upstream.tryEmitValue(OK);
+
+        StepVerifier.create(singleFlight.execute(KEY, call())).expectNext(OK).verifyComplete();
+        StepVerifier.create(singleFlight.execute(KEY, call())).expectNext(OK).verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+}
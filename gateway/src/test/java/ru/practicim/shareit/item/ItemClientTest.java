@@ -0,0 +1,158 @@
+package ru.practicim.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicim.shareit.client.ClientMode;
+import ru.practicim.shareit.client.ResponseCache;
+import ru.practicim.shareit.client.ResponseSizeLimit;
+import ru.practicim.shareit.client.SingleFlight;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemClientTest {
+    private static final String BODY = "{\"id\":1,\"name\":\"Drill\"}";
+
+    private MockWebServer server;
+
+    private ItemClient client(ClientMode mode) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        String serverUrl = server.url("").toString().replaceAll("/$", "");
+        WebClient.Builder webClientBuilder = WebClient.builder();
+        new ResponseSizeLimit(16 << 20).customize(webClientBuilder);
+        return new ItemClient(
+            serverUrl,
+            mode,
+            new RestTemplateBuilder(),
+            webClientBuilder,
+            new SingleFlight(true, meterRegistry),
+            new ResponseCache(true, 1 << 20, meterRegistry)
+        );
+    }
+
+    private static MockResponse tagged(String etag) {
+        return new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setHeader("ETag", etag)
+            .setBody(BODY);
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void notModifiedIsServedFromCacheTest(ClientMode mode) throws InterruptedException {
+        ItemClient client = client(mode);
+        server.enqueue(tagged("\"i1-0\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"i1-0\""));
+
+        ResponseEntity<Object> first = client.getById(2, 1).block();
+        ResponseEntity<Object> second = client.getById(2, 1).block();
+
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals("\"i1-0\"", second.getHeaders().getETag());
+        assertEquals(body(first), body(second));
+        RecordedRequest initial = server.takeRequest();
+        assertEquals("/items/1", initial.getPath());
+        assertEquals("2", initial.getHeader("X-Sharer-User-Id"));
+        assertNull(initial.getHeader("If-None-Match"));
+        assertEquals("\"i1-0\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void changedResourceIsRelayedTest(ClientMode mode) throws InterruptedException {
+        ItemClient client = client(mode);
+        server.enqueue(tagged("\"i1-0\""));
+        server.enqueue(tagged("\"i1-1\"").setBody("{\"id\":1,\"name\":\"Hammer\"}"));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"i1-1\""));
+
+        client.getById(2, 1).block();
+        ResponseEntity<Object> changed = client.getById(2, 1).block();
+        ResponseEntity<Object> cached = client.getById(2, 1).block();
+
+        assertEquals("{\"id\":1,\"name\":\"Hammer\"}", body(changed));
+        assertEquals(body(changed), body(cached));
+        server.takeRequest();
+        assertEquals("\"i1-0\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"i1-1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void cacheIsPerUserTest(ClientMode mode) throws InterruptedException {
+        ItemClient client = client(mode);
+        server.enqueue(tagged("\"i1-0\""));
+        server.enqueue(tagged("\"i1-0\""));
+
+        client.getById(2, 1).block();
+        client.getById(3, 1).block();
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void notFoundDropsCachedResponseTest(ClientMode mode) throws InterruptedException {
+        ItemClient client = client(mode);
+        server.enqueue(tagged("\"i1-0\""));
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"error\":\"Item not found\"}"));
+        server.enqueue(tagged("\"i1-0\""));
+
+        client.getById(2, 1).block();
+        ResponseEntity<Object> missing = client.getById(2, 1).block();
+        client.getById(2, 1).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        server.takeRequest();
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClientMode.class)
+    void largeListIsRelayedTest(ClientMode mode) throws InterruptedException {
+        String items = IntStream.rangeClosed(1, 4000)
+            .mapToObj(id -> "{\"id\":" + id + ",\"name\":\"Drill " + id + "\",\"description\":\"" +
+                "Cordless drill with two batteries and a case" + "\",\"available\":true}")
+            .collect(Collectors.joining(",", "[", "]"));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(items));
+
+        ResponseEntity<Object> response = client(mode).getUserItems(2).block();
+
+        assertTrue(items.length() > 256 * 1024);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(items, body(response));
+        assertEquals("/items", server.takeRequest().getPath());
+    }
+}
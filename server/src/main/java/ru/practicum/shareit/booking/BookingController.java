@@ -2,16 +2,23 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
 import ru.practicum.shareit.booking.dto.OutgoingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingCursor;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.dto.BookingDtoMapper.*;
 
@@ -23,6 +30,16 @@ public class BookingController {
     private final BookingService bookingService;
     private final ItemService itemService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 10;
+
+    private ResponseEntity<List<OutgoingBookingDto>> toCursorPage(List<Booking> page, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.after(page.get(page.size() - 1)).encode());
+        }
+        return response.body(toOutgoingDtoList(page));
+    }
 
     @PostMapping
     public OutgoingBookingDto createBooking(
@@ -60,37 +77,69 @@ public class BookingController {
         }
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResult> approveOrRejectBookings(
+        @RequestBody List<BookingDecisionDto> decisions,
+        @RequestHeader(USER_ID_HEADER) Long user
+    ) {
+        log.info("Request to approve or reject {} bookings.", decisions.size());
+        Map<Long, Boolean> decisionsById = decisions.stream().collect(Collectors.toMap(
+            BookingDecisionDto::getBookingId, BookingDecisionDto::getApproved, (first, last) -> last, LinkedHashMap::new
+        ));
+        return bookingService.decideBookings(decisionsById, user);
+    }
+
     @GetMapping
-    public List<OutgoingBookingDto> getUserBookings(
+    public ResponseEntity<List<OutgoingBookingDto>> getUserBookings(
         @RequestParam(value = "state", defaultValue = "ALL") String state,
         @RequestParam(value = "from", required = false) Integer from,
         @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "cursor", required = false) String cursor,
         @RequestHeader(USER_ID_HEADER) Long user
     ) {
         log.info("Request to receive user {}' Booking.", user);
         try {
+            if (cursor != null) {
+                int pageSize = size != null ? size : DEFAULT_CURSOR_PAGE_SIZE;
+                List<Booking> page = bookingService.getUserBookingsAfter(
+                    user, State.valueOf(state), BookingCursor.decode(cursor), pageSize
+                );
+                return toCursorPage(page, pageSize);
+            }
             if (from == null || size == null) {
-                return toOutgoingDtoList(bookingService.getUserBookings(user, State.valueOf(state)));
+                return ResponseEntity.ok(toOutgoingDtoList(bookingService.getUserBookings(user, State.valueOf(state))));
             }
-            return toOutgoingDtoList(bookingService.getUserBookings(user, State.valueOf(state), from, size));
+            return ResponseEntity.ok(
+                toOutgoingDtoList(bookingService.getUserBookings(user, State.valueOf(state), from, size))
+            );
         } catch (IllegalArgumentException e) {
             throw new UnsupportedStateException(state);
         }
     }
 
     @GetMapping("/owner")
-    public List<OutgoingBookingDto> getItemOwnerBookings(
+    public ResponseEntity<List<OutgoingBookingDto>> getItemOwnerBookings(
         @RequestParam(value = "state", defaultValue = "ALL") String state,
         @RequestParam(value = "from", required = false) Integer from,
         @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "cursor", required = false) String cursor,
         @RequestHeader(USER_ID_HEADER) Long user
     ) {
         log.info("Request to receive item owner {}' Booking.", user);
         try {
+            if (cursor != null) {
+                int pageSize = size != null ? size : DEFAULT_CURSOR_PAGE_SIZE;
+                List<Booking> page = bookingService.getItemOwnerBookingsAfter(
+                    user, State.valueOf(state), BookingCursor.decode(cursor), pageSize
+                );
+                return toCursorPage(page, pageSize);
+            }
             if (from == null || size == null) {
-                return toOutgoingDtoList(bookingService.getItemOwnerBookings(user, State.valueOf(state)));
+                return ResponseEntity.ok(toOutgoingDtoList(bookingService.getItemOwnerBookings(user, State.valueOf(state))));
             }
-            return toOutgoingDtoList(bookingService.getItemOwnerBookings(user, State.valueOf(state), from, size));
+            return ResponseEntity.ok(
+                toOutgoingDtoList(bookingService.getItemOwnerBookings(user, State.valueOf(state), from, size))
+            );
         } catch (IllegalArgumentException e) {
             throw new UnsupportedStateException(state);
         }
@@ -1,5 +1,5 @@
 package ru.practicum.shareit.booking;
 
 public enum State {
-    CURRENT, PAST, FUTURE, WAITING, REJECTED, ALL, CANCELLED
+    CURRENT, PAST, FUTURE, WAITING, REJECTED, ALL, CANCELLED, EXPIRED
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 package ru.practicum.shareit.booking;
 
 public enum Status {
-    WAITING, APPROVED, REJECTED, CANCELLED
+    WAITING, APPROVED, REJECTED, CANCELLED, EXPIRED
 }
\ No newline at end of file
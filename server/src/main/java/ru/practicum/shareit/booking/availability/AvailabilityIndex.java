@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of approved booking intervals per item.
+ * Built from the database once the application is ready and kept current by booking and item writes
+ * after their transactions commit. Intervals that have already ended are dropped on the next approval
+ * of their item and by a periodic prune, so the index holds current and future bookings only.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void add(Long itemId, LocalDateTime start, LocalDateTime end, long now) {
+        if (itemId == null || start == null || end == null || toSeconds(end) <= now) {
+            return;
+        }
+        intervalsByItem.compute(itemId, (id, intervals) -> {
+            ItemIntervals current = intervals != null ? intervals : new ItemIntervals();
+            current.prune(now);
+            current.add(toSeconds(start), toSeconds(end));
+            return current;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        intervalsByItem.clear();
+        long now = toSeconds(LocalDateTime.now());
+        try (Stream<BookingInterval> intervals = bookingRepository.streamIntervalsByStatus(Status.APPROVED)) {
+            intervals.forEach(interval -> add(interval.getItemId(), interval.getStart(), interval.getEnd(), now));
+        }
+        log.info("Availability index built for {} items.", intervalsByItem.size());
+    }
+
+    public void onApproved(Booking booking) {
+        afterCommit(() -> add(
+            booking.getItem().getId(), booking.getStart(), booking.getEnd(), toSeconds(LocalDateTime.now())
+        ));
+    }
+
+    /**
+     * Drops the intervals that have ended and the items left without any.
+     */
+    @Scheduled(
+        initialDelayString = "${shareit.availability.prune-interval-ms:3600000}",
+        fixedDelayString = "${shareit.availability.prune-interval-ms:3600000}"
+    )
+    public void prune() {
+        long now = toSeconds(LocalDateTime.now());
+        intervalsByItem.keySet().forEach(itemId -> intervalsByItem.computeIfPresent(
+            itemId, (id, intervals) -> intervals.prune(now) ? null : intervals
+        ));
+    }
+
+    public void onItemDeleted(Long itemId) {
+        afterCommit(() -> intervalsByItem.remove(itemId));
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsByItem.get(itemId);
+        return intervals == null || !intervals.overlaps(toSeconds(start), toSeconds(end));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approved booking intervals of one item as sorted primitive arrays: starts ascending and, for each
+ * position, the latest end among intervals starting there or earlier. An interval overlaps
+ * [start, end) iff the running latest end of everything starting before {@code end} is after {@code start},
+ * so a lookup is one binary search.
+ * The arrays grow by doubling and an insert only shifts the intervals starting after it, which for approvals
+ * of future periods is usually the short tail. Intervals that ended before the pruning time are dropped
+ * by moving the head, since they form a prefix; periods before that time are then reported as free.
+ */
+class ItemIntervals {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] latestEnds = new long[INITIAL_CAPACITY];
+    private int head;
+    private int tail;
+
+    void add(long start, long end) {
+        lock.writeLock().lock();
+        try {
+            if (tail == starts.length) {
+                makeRoom();
+            }
+            int position = Arrays.binarySearch(starts, head, tail, start);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            System.arraycopy(starts, position, starts, position + 1, tail - position);
+            System.arraycopy(latestEnds, position, latestEnds, position + 1, tail - position);
+            tail++;
+            starts[position] = start;
+            latestEnds[position] = position > head ? Math.max(latestEnds[position - 1], end) : end;
+            for (int i = position + 1; i < tail && latestEnds[i] < end; i++) {
+                latestEnds[i] = end;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean overlaps(long start, long end) {
+        lock.readLock().lock();
+        try {
+            int position = Arrays.binarySearch(starts, head, tail, end);
+            int lastBefore = position >= 0 ? lowerIndex(position) : -position - 2;
+            return lastBefore >= head && latestEnds[lastBefore] > start;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the intervals that ended at or before {@code now} and returns whether none are left.
+     */
+    boolean prune(long now) {
+        lock.writeLock().lock();
+        try {
+            int position = head;
+            while (position < tail && latestEnds[position] <= now) {
+                position++;
+            }
+            head = position;
+            if (head == tail) {
+                head = 0;
+                tail = 0;
+            }
+            return tail == 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void makeRoom() {
+        int size = tail - head;
+        int capacity = size < starts.length / 2 ? starts.length : starts.length * 2;
+        long[] newStarts = capacity == starts.length ? starts : new long[capacity];
+        long[] newLatestEnds = capacity == latestEnds.length ? latestEnds : new long[capacity];
+        System.arraycopy(starts, head, newStarts, 0, size);
+        System.arraycopy(latestEnds, head, newLatestEnds, 0, size);
+        starts = newStarts;
+        latestEnds = newLatestEnds;
+        head = 0;
+        tail = size;
+    }
+
+    private int lowerIndex(int position) {
+        while (position > head && starts[position - 1] == starts[position]) {
+            position--;
+        }
+        return position - 1;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+import ru.practicum.shareit.booking.Status;
+
+/**
+ * Outcome of one decision of a batch: the new status of the booking, or why it was left unchanged.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResult {
+    Long bookingId;
+    Status status;
+    String error;
+
+    public static BookingDecisionResult applied(Long bookingId, Status status) {
+        return new BookingDecisionResult(bookingId, status, null);
+    }
+
+    public static BookingDecisionResult failed(Long bookingId, String error) {
+        return new BookingDecisionResult(bookingId, null, error);
+    }
+}
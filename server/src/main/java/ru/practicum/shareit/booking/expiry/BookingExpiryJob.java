@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically moves waiting bookings whose start has passed to {@link Status#EXPIRED},
+ * one transaction per batch and at most {@code max-batches} batches per run.
+ * Batches lock their rows with SKIP LOCKED, so several server nodes can run the job at the same time.
+ * The lag gauge is the age of the oldest waiting booking left behind by the last run.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true")
+public class BookingExpiryJob {
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expired;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public BookingExpiryJob(
+        BookingService bookingService,
+        BookingRepository bookingRepository,
+        @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+        @Value("${shareit.booking.expiry.max-batches:20}") int maxBatches,
+        MeterRegistry meterRegistry
+    ) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = Counter.builder("shareit.booking.expiry.expired")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("shareit.booking.expiry.batch")
+            .register(meterRegistry);
+        TimeGauge.builder("shareit.booking.expiry.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${shareit.booking.expiry.interval-ms:60000}",
+        fixedDelayString = "${shareit.booking.expiry.interval-ms:60000}"
+    )
+    public void expireWaitingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer count = batchTimer.record(() -> bookingService.expireWaitingBookings(now, batchSize));
+            expired.increment(count);
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        lagMillis.set(bookingRepository.findMinStartByStatusAndStartBefore(Status.WAITING, now)
+            .map(start -> Duration.between(start, now).toMillis())
+            .orElse(0L));
+        if (total > 0) {
+            log.info("Expired {} waiting bookings, lag {} ms.", total, lagMillis.get());
+        }
+    }
+}
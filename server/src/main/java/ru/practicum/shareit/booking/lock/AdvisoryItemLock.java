@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostgreSQL transaction-scoped advisory lock keyed by item id, for setups with several server nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.mode", havingValue = "advisory")
+public class AdvisoryItemLock implements ItemLock {
+    private final JdbcTemplate jdbcTemplate;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    public AdvisoryItemLock(
+        JdbcTemplate jdbcTemplate,
+        @Value("${shareit.booking.lock.timeout-ms:2000}") long timeoutMillis,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+            .tag("mode", "advisory")
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("shareit.booking.lock.timeouts")
+            .tag("mode", "advisory")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void lock(Long itemId) {
+        long waitStart = System.nanoTime();
+        try {
+            jdbcTemplate.execute(String.format("SET LOCAL lock_timeout = '%dms'", timeoutMillis));
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, itemId);
+            jdbcTemplate.execute("SET LOCAL lock_timeout TO DEFAULT");
+        } catch (PessimisticLockingFailureException e) {
+            timeouts.increment();
+            throw new BookingConflictException(String.format("Item %d is busy, try again later.", itemId));
+        } finally {
+            waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Advisory locks are keyed by item id, so ascending ids are the global order.
+     */
+    @Override
+    public void lockAll(Collection<Long> itemIds) {
+        itemIds.stream().distinct().sorted().forEach(this::lock);
+    }
+}
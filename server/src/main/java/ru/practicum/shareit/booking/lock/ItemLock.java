@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.lock;
+
+import java.util.Collection;
+
+/**
+ * Serializes booking writes for a single item.
+ * The lock is bound to the current transaction and released once it completes,
+ * so the next writer always sees the committed state of the previous one.
+ */
+public interface ItemLock {
+    void lock(Long itemId);
+
+    /**
+     * Locks several items in one global order, so two transactions locking overlapping sets can't deadlock.
+     */
+    void lockAll(Collection<Long> itemIds);
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.mode", havingValue = "local", matchIfMissing = true)
+public class StripedItemLock implements ItemLock {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter contended;
+    private final Counter timeouts;
+
+    public StripedItemLock(
+        @Value("${shareit.booking.lock.stripes:64}") int stripeCount,
+        @Value("${shareit.booking.lock.timeout-ms:2000}") long timeoutMillis,
+        MeterRegistry meterRegistry
+    ) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+            .tag("mode", "local")
+            .register(meterRegistry);
+        this.contended = Counter.builder("shareit.booking.lock.contended")
+            .tag("mode", "local")
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("shareit.booking.lock.timeouts")
+            .tag("mode", "local")
+            .register(meterRegistry);
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+
+    @Override
+    public void lock(Long itemId) {
+        lockStripe(stripeIndex(itemId), itemId);
+    }
+
+    /**
+     * Different items may share a stripe, so the stripes rather than the ids are taken in ascending order,
+     * each one once.
+     */
+    @Override
+    public void lockAll(Collection<Long> itemIds) {
+        Map<Integer, Long> itemByStripe = new TreeMap<>();
+        for (Long itemId : itemIds) {
+            itemByStripe.putIfAbsent(stripeIndex(itemId), itemId);
+        }
+        itemByStripe.forEach(this::lockStripe);
+    }
+
+    private void lockStripe(int index, Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item lock requires an active transaction.");
+        }
+        ReentrantLock stripe = stripes[index];
+        if (!stripe.tryLock()) {
+            contended.increment();
+            long waitStart = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = stripe.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                timeouts.increment();
+                throw new BookingConflictException(String.format("Item %d is busy, try again later.", itemId));
+            }
+        } else {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+}
@@ -13,17 +13,31 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "booking")
+@NamedEntityGraph(
+    name = Booking.DETAILS_GRAPH,
+    attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("booker")},
+    subgraphs = {
+        @NamedSubgraph(
+            name = "item",
+            attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode(value = "request", subgraph = "request")}
+        ),
+        @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("creator"))
+    }
+)
 public class Booking {
+    public static final String DETAILS_GRAPH = "Booking.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
     @Column(name = "end_date")
     private LocalDateTime end;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status;
@@ -2,31 +2,205 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.availability.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.suggest.ItemBookingCount;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByBooker(User booker, Pageable page);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByBookerAndStatus(User booker, Status status, Pageable page);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByItemOwner(User itemOwner, Pageable page);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByItemOwnerAndStatus(User itemOwner, Status status, Pageable page);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByBookerAndStatus(User booker, Status status, Sort sort);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByItemOwner(User itemOwner, Sort sort);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByItemOwnerAndStatus(User itemOwner, Status status, Sort sort);
 
     List<Booking> findAllByItemIn(List<Item> items, Sort sort);
 
+    @Query(value = "SELECT id, start_date, end_date, item_id, booker_id, status FROM (" +
+        "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn " +
+        "FROM booking b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date < :now" +
+        ") AS last_booking WHERE rn = 1 " +
+        "UNION ALL " +
+        "SELECT id, start_date, end_date, item_id, booker_id, status FROM (" +
+        "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn " +
+        "FROM booking b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now" +
+        ") AS next_booking WHERE rn = 1",
+        nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIds(
+        @Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now
+    );
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findAllByBooker(User booker, Sort sort);
 
-}
\ No newline at end of file
+    @Override
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @Query("SELECT b FROM Booking b " +
+        "WHERE b.id = :bookingId AND (b.booker.id = :userId OR b.item.owner.id = :userId)")
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Optional<Booking> findByIdForBookerOrItemOwner(@Param("bookingId") Long bookingId, @Param("userId") Long userId);
+
+    @Query("SELECT b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b WHERE b.status = :status")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookingInterval> streamIntervalsByStatus(@Param("status") Status status);
+
+    @Query("SELECT b.item.id AS itemId, COUNT(b) AS bookings FROM Booking b GROUP BY b.item.id")
+    List<ItemBookingCount> countBookingsByItem();
+
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.item.owner.id = :ownerId")
+    List<Booking> findAllByIdForItemOwner(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+
+    List<Booking> findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(
+        Collection<Long> itemIds, Status status, LocalDateTime end, LocalDateTime start
+    );
+
+    /**
+     * Sets the status of those bookings that are still in one of the {@code decidable} statuses
+     * and returns how many were set, so a concurrent expiry or cancellation is never overwritten.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids AND b.status IN :decidable")
+    int updateStatus(
+        @Param("ids") Collection<Long> ids, @Param("status") Status status, @Param("decidable") Set<Status> decidable
+    );
+
+    @Query("SELECT MIN(b.start) FROM Booking b WHERE b.status = :status AND b.start < :start")
+    Optional<LocalDateTime> findMinStartByStatusAndStartBefore(
+        @Param("status") Status status, @Param("start") LocalDateTime start
+    );
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+        Long itemId, Status status, LocalDateTime end, LocalDateTime start
+    );
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+        Long itemId, Status status, LocalDateTime end, LocalDateTime start, Long id
+    );
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByBookerAndEndBefore(User booker, LocalDateTime end, Pageable page);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByBookerAndStartAfter(User booker, LocalDateTime start, Pageable page);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(
+        User booker, LocalDateTime start, LocalDateTime end, Pageable page
+    );
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByBookerAndEndBefore(User booker, LocalDateTime end, Sort sort);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByBookerAndStartAfter(User booker, LocalDateTime start, Sort sort);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(
+        User booker, LocalDateTime start, LocalDateTime end, Sort sort
+    );
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByItemOwnerAndEndBefore(User itemOwner, LocalDateTime end, Pageable page);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByItemOwnerAndStartAfter(User itemOwner, LocalDateTime start, Pageable page);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByItemOwnerAndStartBeforeAndEndAfter(
+        User itemOwner, LocalDateTime start, LocalDateTime end, Pageable page
+    );
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByItemOwnerAndEndBefore(User itemOwner, LocalDateTime end, Sort sort);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByItemOwnerAndStartAfter(User itemOwner, LocalDateTime start, Sort sort);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findAllByItemOwnerAndStartBeforeAndEndAfter(
+        User itemOwner, LocalDateTime start, LocalDateTime end, Sort sort
+    );
+
+    /**
+     * One page of the booker's bookings after the cursor, newest first. The redundant {@code b.start <= :cursorStart}
+     * bounds the scan of {@code idx_booking_booker_start}, which the OR alone does not.
+     */
+    @Query("SELECT b FROM Booking b " +
+        "WHERE b.booker = :booker AND b.status IN :statuses " +
+        "AND b.start > :startFrom AND b.start < :startTo AND b.end > :endFrom AND b.end < :endTo " +
+        "AND b.start <= :cursorStart " +
+        "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+        "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findBookerPageAfter(
+        @Param("booker") User booker,
+        @Param("statuses") List<Status> statuses,
+        @Param("startFrom") LocalDateTime startFrom,
+        @Param("startTo") LocalDateTime startTo,
+        @Param("endFrom") LocalDateTime endFrom,
+        @Param("endTo") LocalDateTime endTo,
+        @Param("cursorStart") LocalDateTime cursorStart,
+        @Param("cursorId") Long cursorId,
+        Pageable limit
+    );
+
+    /**
+     * One page of bookings of the owner's items after the cursor, newest first. The owner's items are found through
+     * {@code idx_item_owner} and each item's bookings are a range of {@code idx_booking_item_start} bounded by
+     * {@code b.start <= :cursorStart}; the ranges are merged by a top-N sort, so the cost grows with the number of
+     * the owner's items as well as with the page size.
+     */
+    @Query("SELECT b FROM Booking b " +
+        "WHERE b.item.id IN (SELECT i.id FROM Item i WHERE i.owner = :owner) AND b.status IN :statuses " +
+        "AND b.start > :startFrom AND b.start < :startTo AND b.end > :endFrom AND b.end < :endTo " +
+        "AND b.start <= :cursorStart " +
+        "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+        "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findItemOwnerPageAfter(
+        @Param("owner") User itemOwner,
+        @Param("statuses") List<Status> statuses,
+        @Param("startFrom") LocalDateTime startFrom,
+        @Param("startTo") LocalDateTime startTo,
+        @Param("endFrom") LocalDateTime endFrom,
+        @Param("endTo") LocalDateTime endTo,
+        @Param("cursorStart") LocalDateTime cursorStart,
+        @Param("cursorId") Long cursorId,
+        Pageable limit
+    );
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Moves up to {@code limit} bookings in status {@code from} that start before {@code start} to status {@code to},
+     * oldest first, in a single statement. Returns the number of bookings moved.
+     */
+    int updateStatusByStatusAndStartBefore(Status from, Status to, LocalDateTime start, int limit);
+}
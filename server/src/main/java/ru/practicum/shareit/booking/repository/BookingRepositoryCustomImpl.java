@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.booking.Status;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String OLDEST = "SELECT id FROM booking WHERE status = :from AND start_date < :start " +
+        "ORDER BY start_date LIMIT :limit";
+
+    private final EntityManager entityManager;
+    private final boolean postgres;
+
+    public BookingRepositoryCustomImpl(EntityManager entityManager, DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * On PostgreSQL rows locked by a concurrent transaction are skipped, so several callers get disjoint batches.
+     */
+    @Override
+    public int updateStatusByStatusAndStartBefore(Status from, Status to, LocalDateTime start, int limit) {
+        String oldest = postgres ? OLDEST + " FOR UPDATE SKIP LOCKED" : OLDEST;
+        int updated = entityManager.createNativeQuery("UPDATE booking SET status = :to WHERE id IN (" + oldest + ")")
+            .setParameter("from", from.name())
+            .setParameter("to", to.name())
+            .setParameter("start", start)
+            .setParameter("limit", limit)
+            .executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.model.Booking;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     Booking createBooking(Booking booking, Long owner);
@@ -15,9 +18,17 @@ public interface BookingService {
 
     List<Booking> getUserBookings(Long userId, State state);
 
+    List<Booking> getUserBookingsAfter(Long userId, State state, BookingCursor cursor, Integer size);
+
+    List<Booking> getItemOwnerBookingsAfter(Long ownerId, State state, BookingCursor cursor, Integer size);
+
     List<Booking> getItemOwnerBookings(Long ownerId, State state);
 
     Booking approveBooking(Long bookingId, Long itemOwnerId);
 
     Booking rejectBooking(Long bookingId, Long itemOwnerId);
+
+    List<BookingDecisionResult> decideBookings(Map<Long, Boolean> decisions, Long itemOwnerId);
+
+    int expireWaitingBookings(LocalDateTime startBefore, int limit);
 }
\ No newline at end of file
@@ -1,55 +1,63 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.lock.ItemLock;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.exception.WrongUserIdException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    /**
+     * Approved, cancelled and expired bookings are final; only waiting and rejected ones can still be decided.
+     */
+    private static final Set<Status> DECIDABLE = EnumSet.of(Status.WAITING, Status.REJECTED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemLock itemLock;
+    private final AvailabilityIndex availabilityIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
     private final Sort byStartDescSorting = Sort.by(Sort.Direction.DESC, "start");
 
     private Booking getBookingIfUserHasAccess(Long bookingId, Long userId) {
-        Booking booking;
-        try {
-            booking = isBooker(userId, bookingId);
-        } catch (NotFoundException e) {
-            booking = isItemOwner(userId, bookingId);
-        }
-        return booking;
-    }
-
-    private Booking isBooker(Long userId, Long bookingId) {
-        Booking booking = getBookingById(bookingId);
-        boolean isUserBooker = booking.getBooker().getId().equals(userId);
-        if (isUserBooker) {
-            return booking;
-        } else {
-            throw new NotFoundException(String.format("User %d is not booker of booking %d.", userId, bookingId));
-        }
+        return bookingRepository.findByIdForBookerOrItemOwner(bookingId, userId).orElseThrow(
+            () -> new NotFoundException(
+                String.format("Booking %d is not found or user %d has no access to it.", bookingId, userId)
+            )
+        );
     }
 
     private Booking isItemOwner(Long userId, Long bookingId) {
@@ -70,8 +78,51 @@ public class BookingServiceImpl implements BookingService {
         );
     }
 
-    private boolean isBookingApproved(Booking booking) {
-        return booking.getStatus().equals(Status.APPROVED);
+    private boolean isBookingDecided(Booking booking) {
+        return !DECIDABLE.contains(booking.getStatus());
+    }
+
+    /**
+     * Writes the decision only for bookings that are still decidable. The status was checked on an earlier read,
+     * so a booking expired or cancelled since then fails the whole decision with a conflict.
+     */
+    private void updateDecidableStatus(List<Long> bookingIds, Status status) {
+        if (bookingRepository.updateStatus(bookingIds, status, DECIDABLE) != bookingIds.size()) {
+            throw new BookingConflictException(
+                String.format("Bookings %s were decided, cancelled or expired concurrently.", bookingIds)
+            );
+        }
+    }
+
+    private static Booking withStatus(Booking booking, Status status) {
+        return Booking.builder()
+            .id(booking.getId())
+            .start(booking.getStart())
+            .end(booking.getEnd())
+            .item(booking.getItem())
+            .booker(booking.getBooker())
+            .status(status)
+            .build();
+    }
+
+    private String alreadyDecidedMessage(Booking booking) {
+        return String.format("Booking %d is already %s.", booking.getId(), booking.getStatus().name().toLowerCase());
+    }
+
+    /**
+     * {@code bookingId} is the stored booking being approved, which must not conflict with itself; null for a new one.
+     */
+    private void checkNoApprovedOverlap(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        boolean overlaps = bookingId == null
+            ? bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, Status.APPROVED, end, start)
+            : bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                itemId, Status.APPROVED, end, start, bookingId
+            );
+        if (overlaps) {
+            throw new BookingConflictException(
+                String.format("Item %d is already booked from %s to %s.", itemId, start, end)
+            );
+        }
     }
 
     private User getUserById(Long userId) {
@@ -86,22 +137,6 @@ public class BookingServiceImpl implements BookingService {
         );
     }
 
-    private Predicate<Booking> getFilterByState(State state) {
-        switch (state) {
-            case PAST:
-                return booking ->
-                    booking.getEnd().isBefore(LocalDateTime.now());
-            case CURRENT:
-                return booking ->
-                    booking.getStart().isBefore(LocalDateTime.now()) && booking.getEnd().isAfter(LocalDateTime.now());
-            case FUTURE:
-                return booking ->
-                    booking.getStart().isAfter(LocalDateTime.now());
-            default:
-                throw new RuntimeException();
-        }
-    }
-
     @Override
     public Booking createBooking(Booking booking, Long bookerId) {
         User user = getUserById(bookerId);
@@ -111,9 +146,13 @@ public class BookingServiceImpl implements BookingService {
         } else if (!item.getAvailable()) {
             throw new ValidationException(String.format("Item %d is unavailable.", item.getId()));
         }
+        itemLock.lock(item.getId());
+        checkNoApprovedOverlap(null, item.getId(), booking.getStart(), booking.getEnd());
         booking.setItem(item);
         booking.setBooker(user);
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        itemSuggestIndex.onBooked(item.getId());
+        return saved;
     }
 
     @Override
@@ -127,6 +166,7 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getUserBookings(Long bookerId, State state, Integer from, Integer size) {
         User booker = getUserById(bookerId);
         List<Booking> bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
 
         Pagination pagination = new Pagination(from, size);
         Pageable page = pagination.getPageable();
@@ -137,15 +177,18 @@ public class BookingServiceImpl implements BookingService {
             case WAITING:
             case REJECTED:
             case CANCELLED:
+            case EXPIRED:
                 Status status = Status.valueOf(state.name());
                 bookings = bookingRepository.findAllByBookerAndStatus(booker, status, page);
                 break;
             case PAST:
+                bookings = bookingRepository.findAllByBookerAndEndBefore(booker, now, page);
+                break;
             case CURRENT:
+                bookings = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(booker, now, now, page);
+                break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBooker(booker, page).stream()
-                    .filter(getFilterByState(state))
-                    .collect(Collectors.toList());
+                bookings = bookingRepository.findAllByBookerAndStartAfter(booker, now, page);
         }
         return bookings;
     }
@@ -155,6 +198,7 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getItemOwnerBookings(Long itemOwnerId, State state, Integer from, Integer size) {
         User itemOwner = getUserById(itemOwnerId);
         List<Booking> bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
 
         Pagination pagination = new Pagination(from, size);
         Pageable page = pagination.getPageable();
@@ -165,15 +209,18 @@ public class BookingServiceImpl implements BookingService {
             case WAITING:
             case REJECTED:
             case CANCELLED:
+            case EXPIRED:
                 Status status = Status.valueOf(state.name());
                 bookings = bookingRepository.findAllByItemOwnerAndStatus(itemOwner, status, page);
                 break;
             case PAST:
+                bookings = bookingRepository.findAllByItemOwnerAndEndBefore(itemOwner, now, page);
+                break;
             case CURRENT:
+                bookings = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(itemOwner, now, now, page);
+                break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItemOwner(itemOwner, page).stream()
-                    .filter(getFilterByState(state))
-                    .collect(Collectors.toList());
+                bookings = bookingRepository.findAllByItemOwnerAndStartAfter(itemOwner, now, page);
         }
         return bookings;
     }
@@ -183,6 +230,7 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getUserBookings(Long bookerId, State state) {
         User booker = getUserById(bookerId);
         List<Booking> bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
 
         switch (state) {
             case ALL:
@@ -191,16 +239,21 @@ public class BookingServiceImpl implements BookingService {
             case WAITING:
             case REJECTED:
             case CANCELLED:
+            case EXPIRED:
                 Status status = Status.valueOf(state.name());
                 bookings = bookingRepository.findAllByBookerAndStatus(booker, status, byStartDescSorting);
                 break;
             case PAST:
+                bookings = bookingRepository.findAllByBookerAndEndBefore(booker, now, byStartDescSorting);
+                break;
             case CURRENT:
+                bookings = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(
+                    booker, now, now, byStartDescSorting
+                );
+                break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBooker(booker, byStartDescSorting).stream()
-                    .filter(getFilterByState(state))
-                    .collect(Collectors.toList());
-            }
+                bookings = bookingRepository.findAllByBookerAndStartAfter(booker, now, byStartDescSorting);
+        }
         return bookings;
     }
 
@@ -209,6 +262,7 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getItemOwnerBookings(Long ownerId, State state) {
         User itemOwner = getUserById(ownerId);
         List<Booking> bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
 
         switch (state) {
             case ALL:
@@ -217,36 +271,163 @@ public class BookingServiceImpl implements BookingService {
             case WAITING:
             case REJECTED:
             case CANCELLED:
+            case EXPIRED:
                 Status status = Status.valueOf(state.name());
                 bookings = bookingRepository.findAllByItemOwnerAndStatus(itemOwner, status, byStartDescSorting);
                 break;
             case PAST:
+                bookings = bookingRepository.findAllByItemOwnerAndEndBefore(itemOwner, now, byStartDescSorting);
+                break;
             case CURRENT:
+                bookings = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(
+                    itemOwner, now, now, byStartDescSorting
+                );
+                break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItemOwner(itemOwner, byStartDescSorting).stream()
-                    .filter(getFilterByState(state))
-                    .collect(Collectors.toList());
+                bookings = bookingRepository.findAllByItemOwnerAndStartAfter(itemOwner, now, byStartDescSorting);
         }
         return bookings;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getUserBookingsAfter(Long bookerId, State state, BookingCursor cursor, Integer size) {
+        User booker = getUserById(bookerId);
+        BookingWindow window = BookingWindow.of(state, LocalDateTime.now());
+        return bookingRepository.findBookerPageAfter(
+            booker, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, size)
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getItemOwnerBookingsAfter(Long ownerId, State state, BookingCursor cursor, Integer size) {
+        User itemOwner = getUserById(ownerId);
+        BookingWindow window = BookingWindow.of(state, LocalDateTime.now());
+        return bookingRepository.findItemOwnerPageAfter(
+            itemOwner, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, size)
+        );
+    }
+
     @Override
     public Booking approveBooking(Long bookingId, Long itemOwnerId) {
         Booking booking = isItemOwner(itemOwnerId, bookingId);
-        if (isBookingApproved(booking)) {
-            throw new ValidationException(String.format("Booking %d is already approved.", bookingId));
+        if (isBookingDecided(booking)) {
+            throw new ValidationException(alreadyDecidedMessage(booking));
         }
-        booking.setStatus(Status.APPROVED);
-        return bookingRepository.save(booking);
+        itemLock.lock(booking.getItem().getId());
+        checkNoApprovedOverlap(bookingId, booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        try {
+            updateDecidableStatus(List.of(bookingId), Status.APPROVED);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException(
+                String.format("Booking %d overlaps another approved booking.", bookingId)
+            );
+        }
+        Booking approved = withStatus(booking, Status.APPROVED);
+        availabilityIndex.onApproved(approved);
+        return approved;
     }
 
     @Override
     public Booking rejectBooking(Long bookingId, Long itemOwnerId) {
         Booking booking = isItemOwner(itemOwnerId, bookingId);
-        if (isBookingApproved(booking)) {
-            throw new ValidationException(String.format("Booking %d is already approved.", bookingId));
+        if (isBookingDecided(booking)) {
+            throw new ValidationException(alreadyDecidedMessage(booking));
+        }
+        updateDecidableStatus(List.of(bookingId), Status.REJECTED);
+        return withStatus(booking, Status.REJECTED);
+    }
+
+    /**
+     * Applies approve/reject decisions of one item owner. Ownership is checked for all bookings with one query,
+     * approvals are checked for overlaps against approved bookings and each other in request order,
+     * and the accepted decisions are written with one guarded UPDATE per target status.
+     */
+    @Override
+    public List<BookingDecisionResult> decideBookings(Map<Long, Boolean> decisions, Long itemOwnerId) {
+        Map<Long, Booking> owned = bookingRepository.findAllByIdForItemOwner(decisions.keySet(), itemOwnerId).stream()
+            .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, BookingDecisionResult> results = new LinkedHashMap<>();
+        List<Booking> approvals = new ArrayList<>();
+        List<Long> rejections = new ArrayList<>();
+        decisions.forEach((bookingId, approved) -> {
+            Booking booking = owned.get(bookingId);
+            if (booking == null) {
+                results.put(bookingId, BookingDecisionResult.failed(bookingId, String.format(
+                    "Booking %d is not found or user %d is not owner of its item.", bookingId, itemOwnerId
+                )));
+            } else if (isBookingDecided(booking)) {
+                results.put(bookingId, BookingDecisionResult.failed(bookingId, alreadyDecidedMessage(booking)));
+            } else if (approved) {
+                results.put(bookingId, null);
+                approvals.add(booking);
+            } else {
+                results.put(bookingId, BookingDecisionResult.applied(bookingId, Status.REJECTED));
+                rejections.add(bookingId);
+            }
+        });
+        List<Booking> approved = acceptNonOverlapping(approvals, results);
+        if (!approved.isEmpty()) {
+            try {
+                updateDecidableStatus(
+                    approved.stream().map(Booking::getId).collect(Collectors.toList()), Status.APPROVED
+                );
+            } catch (DataIntegrityViolationException e) {
+                throw new BookingConflictException("Approved bookings overlap other approved bookings.");
+            }
+            approved.forEach(availabilityIndex::onApproved);
+        }
+        if (!rejections.isEmpty()) {
+            updateDecidableStatus(rejections, Status.REJECTED);
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Moves up to {@code limit} waiting bookings that start before {@code startBefore} to {@link Status#EXPIRED}.
+     */
+    @Override
+    public int expireWaitingBookings(LocalDateTime startBefore, int limit) {
+        return bookingRepository.updateStatusByStatusAndStartBefore(Status.WAITING, Status.EXPIRED, startBefore, limit);
+    }
+
+    private List<Booking> acceptNonOverlapping(List<Booking> approvals, Map<Long, BookingDecisionResult> results) {
+        if (approvals.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = approvals.stream()
+            .map(booking -> booking.getItem().getId())
+            .distinct()
+            .sorted()
+            .collect(Collectors.toList());
+        itemLock.lockAll(itemIds);
+        LocalDateTime start = approvals.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime end = approvals.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<Booking>> approvedByItem = bookingRepository
+            .findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds, Status.APPROVED, end, start).stream()
+            .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        List<Booking> accepted = new ArrayList<>();
+        for (Booking booking : approvals) {
+            Long itemId = booking.getItem().getId();
+            List<Booking> approved = approvedByItem.computeIfAbsent(itemId, id -> new ArrayList<>());
+            boolean overlaps = approved.stream()
+                .filter(other -> !other.getId().equals(booking.getId()))
+                .anyMatch(other -> other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()));
+            if (overlaps) {
+                results.put(booking.getId(), BookingDecisionResult.failed(booking.getId(), String.format(
+                    "Item %d is already booked from %s to %s.", itemId, booking.getStart(), booking.getEnd()
+                )));
+            } else {
+                approved.add(booking);
+                accepted.add(booking);
+                results.put(booking.getId(), BookingDecisionResult.applied(booking.getId(), Status.APPROVED));
+            }
         }
-        booking.setStatus(Status.REJECTED);
-        return bookingRepository.save(booking);
+        return accepted;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Translates a {@link State} into open bounds on start/end and a set of statuses,
+ * so every state can be served by the same keyset query.
+ */
+@Getter
+public class BookingWindow {
+    static final LocalDateTime MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private final List<Status> statuses;
+    private final LocalDateTime startFrom;
+    private final LocalDateTime startTo;
+    private final LocalDateTime endFrom;
+    private final LocalDateTime endTo;
+
+    private BookingWindow(List<Status> statuses, LocalDateTime startFrom, LocalDateTime startTo,
+                          LocalDateTime endFrom, LocalDateTime endTo) {
+        this.statuses = statuses;
+        this.startFrom = startFrom;
+        this.startTo = startTo;
+        this.endFrom = endFrom;
+        this.endTo = endTo;
+    }
+
+    public static BookingWindow of(State state, LocalDateTime now) {
+        List<Status> all = List.of(Status.values());
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+            case CANCELLED:
+            case EXPIRED:
+                return new BookingWindow(List.of(Status.valueOf(state.name())), MIN_DATE, MAX_DATE, MIN_DATE, MAX_DATE);
+            case PAST:
+                return new BookingWindow(all, MIN_DATE, MAX_DATE, MIN_DATE, now);
+            case CURRENT:
+                return new BookingWindow(all, MIN_DATE, now, now, MAX_DATE);
+            case FUTURE:
+                return new BookingWindow(all, now, MAX_DATE, MIN_DATE, MAX_DATE);
+            default:
+                return new BookingWindow(all, MIN_DATE, MAX_DATE, MIN_DATE, MAX_DATE);
+        }
+    }
+}
@@ -16,14 +16,28 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "comment")
+@NamedEntityGraph(
+    name = Comment.DETAILS_GRAPH,
+    attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("user")},
+    subgraphs = {
+        @NamedSubgraph(
+            name = "item",
+            attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode(value = "request", subgraph = "request")}
+        ),
+        @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("creator"))
+    }
+)
 public class Comment {
+    public static final String DETAILS_GRAPH = "Comment.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     private Long id;
     private String text;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
     @CreationTimestamp
     private LocalDateTime created;
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -7,5 +8,9 @@ import ru.practicum.shareit.item.model.Item;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(Comment.DETAILS_GRAPH)
     List<Comment> findAllByItem(Item item);
+
+    @EntityGraph(Comment.DETAILS_GRAPH)
+    List<Comment> findAllByItemIn(List<Item> items);
 }
\ No newline at end of file
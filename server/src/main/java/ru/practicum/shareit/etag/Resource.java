@@ -0,0 +1,17 @@
+package ru.practicum.shareit.etag;
+
+public enum Resource {
+    ITEM("i"),
+    REQUEST("r"),
+    USER("u");
+
+    private final String prefix;
+
+    Resource(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
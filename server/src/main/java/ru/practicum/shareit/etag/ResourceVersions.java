@@ -0,0 +1,75 @@
+package ru.practicum.shareit.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Optional;
+
+/**
+ * Strong ETags of item, request and user representations, built from the {@code version} column of their rows.
+ * Every write that changes a representation increments the column in its own transaction, so all nodes
+ * hand out the same tag, and a tag costs one primary key lookup.
+ * Read the tag before loading the representation: a load that overlaps a write then gets a tag
+ * that is already stale, never a current tag on old data.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersions {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+
+    private Optional<Long> version(Resource resource, Long id) {
+        switch (resource) {
+            case ITEM:
+                return itemRepository.findVersionById(id);
+            case REQUEST:
+                return itemRequestRepository.findVersionById(id);
+            default:
+                return userRepository.findVersionById(id);
+        }
+    }
+
+    private static String tag(Resource resource, Long id, long version) {
+        return resource.getPrefix() + id + "-" + version;
+    }
+
+    /**
+     * Empty when there is no such resource.
+     */
+    public Optional<String> etag(Resource resource, Long id) {
+        return version(resource, id).map(version -> "\"" + tag(resource, id, version) + "\"");
+    }
+
+    /**
+     * Tag of a representation that also depends on the user reading it, so that it goes stale
+     * once that user is changed or deleted. Empty when either is missing.
+     */
+    public Optional<String> etag(Resource resource, Long id, Long userId) {
+        return version(resource, id).flatMap(version -> version(Resource.USER, userId)
+            .map(userVersion -> "\"" + tag(resource, id, version) + "-" +
+                tag(Resource.USER, userId, userVersion) + "\""));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value names the tag, by the weak comparison the header uses.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -58,6 +58,13 @@ public class ErrorHandler {
         return Map.of("Email is not-unique:", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleBookingConflictException(final BookingConflictException e) {
+        log.error("Booking conflict: " + e.getMessage());
+        return Map.of("Booking conflict:", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handleInternalError(final Throwable e) {
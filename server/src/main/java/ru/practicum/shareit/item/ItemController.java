@@ -2,11 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.IncomingCommentDto;
 import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.etag.Resource;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.bulk.ItemImporter;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -14,7 +23,13 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 import static ru.practicum.shareit.comment.dto.CommentDtoMapper.*;
 import static ru.practicum.shareit.item.dto.ItemDtoMapper.*;
@@ -26,6 +41,8 @@ import static ru.practicum.shareit.item.dto.ItemDtoMapper.*;
 public class ItemController {
     private final ItemService itemService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemImporter itemImporter;
+    private final ResourceVersions resourceVersions;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -44,6 +61,16 @@ public class ItemController {
         return toOutgoingDto(itemService.createItem(item, owner));
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createItems(
+        @RequestHeader(USER_ID_HEADER) Long owner,
+        InputStream body,
+        HttpServletResponse response
+    ) throws IOException {
+        log.info("Request to import items for user {}.", owner);
+        itemImporter.importItems(owner, body, response);
+    }
+
     @PatchMapping("/{itemId}")
     public OutgoingItemDto updateItem(
         @RequestBody IncomingItemDto incomingItemDto,
@@ -51,18 +78,29 @@ public class ItemController {
         @RequestHeader(USER_ID_HEADER) Long user
     ) {
         log.info("Request to update item {}.", itemId);
-        Item item = itemService.getItem(itemId);
-        partialMapToItem(incomingItemDto, item);
-        return toOutgoingDto(itemService.updateItem(item, user));
+        return toOutgoingDto(itemService.updateItem(itemId, toItem(incomingItemDto), user));
     }
 
+    /**
+     * Only the view of a non-owner is tagged: the owner's one also shows last and next bookings,
+     * which change with time. Tags are never issued to the owner, so a matching tag needs no owner check.
+     */
     @GetMapping("/{itemId}")
-    public OutgoingItemDto getItemById(
+    public ResponseEntity<OutgoingItemDto> getItemById(
         @PathVariable Long itemId,
-        @RequestHeader(USER_ID_HEADER) Long user
+        @RequestHeader(USER_ID_HEADER) Long user,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         log.info("Request to get item {}.", itemId);
-        return itemService.getItemById(itemId, user);
+        Optional<String> etag = resourceVersions.etag(Resource.ITEM, itemId);
+        if (etag.isPresent() && ResourceVersions.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+        OutgoingItemDto dto = itemService.getItemById(itemId, user);
+        if (etag.isEmpty() || Objects.equals(dto.getOwnerId(), user)) {
+            return ResponseEntity.ok(dto);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag.get()).body(dto);
     }
 
     @DeleteMapping("/{itemId}")
@@ -78,9 +116,42 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<OutgoingItemDto> search(@RequestParam String text) {
-        log.info("Request to search items by \"{}\".", text);
-        return toOutgoingDtoList(itemService.search(text));
+    public List<OutgoingItemDto> search(
+        @RequestParam String text,
+        @RequestParam(value = "from", required = false) Integer from,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy
+    ) {
+        log.info("Request to search items by \"{}\", fuzzy: {}.", text, fuzzy);
+        if (fuzzy) {
+            return toOutgoingDtoList(itemService.searchFuzzy(text, from, size));
+        }
+        if (from == null || size == null) {
+            return toOutgoingDtoList(itemService.search(text));
+        }
+        return toOutgoingDtoList(itemService.search(text, from, size));
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(
+        @RequestParam String prefix,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.debug("Request to suggest item names by \"{}\".", prefix);
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/available")
+    public List<OutgoingItemDto> findAvailable(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+        @RequestParam(required = false) String text,
+        @RequestParam(value = "from", defaultValue = "0") Integer from,
+        @RequestParam(value = "size", defaultValue = "10") Integer size
+    ) {
+        log.info("Request to find items available from {} to {} by \"{}\", from={}, size={}.",
+            start, end, text, from, size);
+        return toOutgoingDtoList(itemService.findAvailable(start, end, text, from, size));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * Outcome of one line of a bulk import: the created item id with status 201, or the error that rejected the line.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    long line;
+    int status;
+    Long id;
+    String error;
+
+    public static ItemImportResult created(long line, Long id) {
+        return new ItemImportResult(line, 201, id, null);
+    }
+
+    public static ItemImportResult failed(long line, int status, String error) {
+        return new ItemImportResult(line, status, null, error);
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.dto.ItemDtoMapper.*;
+
+/**
+ * Creates items from an NDJSON stream, one item per line, writing one result line per input line.
+ * Lines are read and written a batch at a time, and every batch is saved in its own transaction,
+ * so memory stays flat however long the stream is and a failed batch only rejects its own lines.
+ * Results are flushed after every batch while the request is still being read,
+ * so clients have to consume the response as they send.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ItemImporter(
+        ItemService itemService,
+        UserService userService,
+        ItemRequestRepository itemRequestRepository,
+        ObjectMapper objectMapper,
+        @Value("${shareit.item.bulk.batch-size:500}") int batchSize
+    ) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.itemRequestRepository = itemRequestRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Checks the owner before touching the response, so an unknown owner still gets a regular error response.
+     */
+    public void importItems(Long owner, InputStream in, HttpServletResponse response) throws IOException {
+        userService.getUserById(owner);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        Batch batch = new Batch();
+        long lineNumber = 0;
+        long created = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(lineNumber, objectMapper.readValue(line, IncomingItemDto.class));
+            } catch (JsonProcessingException e) {
+                batch.reject(lineNumber, 400, "Malformed item: " + e.getOriginalMessage());
+            }
+            if (batch.size() >= batchSize) {
+                created += write(batch.save(owner), writer);
+                batch = new Batch();
+            }
+        }
+        created += write(batch.save(owner), writer);
+        log.info("Imported {} items of {} lines for user {}.", created, lineNumber, owner);
+    }
+
+    private long write(List<ItemImportResult> results, Writer writer) throws IOException {
+        long created = 0;
+        for (ItemImportResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+            if (result.getId() != null) {
+                created++;
+            }
+        }
+        writer.flush();
+        return created;
+    }
+
+    private class Batch {
+        private final Map<Long, ItemImportResult> results = new TreeMap<>();
+        private final Map<Long, IncomingItemDto> dtos = new TreeMap<>();
+
+        int size() {
+            return results.size() + dtos.size();
+        }
+
+        void add(long line, IncomingItemDto dto) {
+            dtos.put(line, dto);
+        }
+
+        void reject(long line, int status, String error) {
+            results.put(line, ItemImportResult.failed(line, status, error));
+        }
+
+        List<ItemImportResult> save(Long owner) {
+            Map<Long, ItemRequest> requests = findRequests();
+            List<Long> lines = new ArrayList<>();
+            List<Item> items = new ArrayList<>();
+            dtos.forEach((line, dto) -> {
+                if (dto.getRequestId() != null && !requests.containsKey(dto.getRequestId())) {
+                    reject(line, 404, String.format("Item request %d not found.", dto.getRequestId()));
+                    return;
+                }
+                Item item = toItem(dto);
+                item.setRequest(dto.getRequestId() == null ? null : requests.get(dto.getRequestId()));
+                lines.add(line);
+                items.add(item);
+            });
+            if (!items.isEmpty()) {
+                try {
+                    List<Item> saved = itemService.createItems(items, owner);
+                    for (int i = 0; i < saved.size(); i++) {
+                        results.put(lines.get(i), ItemImportResult.created(lines.get(i), saved.get(i).getId()));
+                    }
+                } catch (DataAccessException e) {
+                    log.warn("Failed to import lines {} to {}.", lines.get(0), lines.get(lines.size() - 1), e);
+                    lines.forEach(line -> reject(line, 409, e.getMostSpecificCause().getMessage()));
+                }
+            }
+            return new ArrayList<>(results.values());
+        }
+
+        private Map<Long, ItemRequest> findRequests() {
+            List<Long> ids = dtos.values().stream()
+                .map(IncomingItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+            if (ids.isEmpty()) {
+                return Map.of();
+            }
+            return itemRequestRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        }
+    }
+}
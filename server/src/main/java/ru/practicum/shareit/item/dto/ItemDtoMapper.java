@@ -3,7 +3,6 @@ package ru.practicum.shareit.item.dto;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.model.Item;
 
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +18,9 @@ public class ItemDtoMapper {
         if (item.getRequest() != null) {
             dto.setRequestId(item.getRequest().getId());
         }
+        if (item.getOwner() != null) {
+            dto.setOwnerId(item.getOwner().getId());
+        }
         return dto;
     }
 
@@ -31,24 +33,18 @@ public class ItemDtoMapper {
             .build();
     }
 
-    public void partialMapToItem(IncomingItemDto dto, Item item) {
-        Field[] dtoFields = dto.getClass().getDeclaredFields();
-        Class<? extends Item> itemClass = item.getClass();
-        for (Field dtoField: dtoFields) {
-            dtoField.setAccessible(true);
-            try {
-                if (dtoField.get(dto) == null) {
-                    continue;
-                }
-
-                String fieldName = dtoField.getName();
-
-                Field itemField = itemClass.getDeclaredField(fieldName);
-                itemField.setAccessible(true);
-                itemField.set(item, dtoField.get(dto));
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+    /**
+     * Copies the editable fields that are present in the patch; id, owner and request never change on update.
+     */
+    public void partialMapToItem(Item patch, Item item) {
+        if (patch.getName() != null) {
+            item.setName(patch.getName());
+        }
+        if (patch.getDescription() != null) {
+            item.setDescription(patch.getDescription());
+        }
+        if (patch.getAvailable() != null) {
+            item.setAvailable(patch.getAvailable());
         }
     }
 
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.OutForItemBooking;
@@ -17,4 +18,6 @@ public class OutgoingItemDto {
     private OutForItemBooking lastBooking;
     private List<Comment> comments;
     private Long requestId;
+    @JsonIgnore
+    private Long ownerId;
 }
\ No newline at end of file
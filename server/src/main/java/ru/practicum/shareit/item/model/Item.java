@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,15 +15,24 @@ import javax.persistence.*;
 @Builder
 @Entity
 @Table(name = "item")
+@NamedEntityGraph(
+    name = Item.DETAILS_GRAPH,
+    attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode(value = "request", subgraph = "request")},
+    subgraphs = @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("creator"))
+)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Item {
+    public static final String DETAILS_GRAPH = "Item.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
     private Boolean available;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User owner;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ItemRequest request;
 }
\ No newline at end of file
@@ -1,13 +1,26 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    String SIMILARITY_QUERY = "SELECT i.id, i.name, i.description, i.available, i.owner_id, i.request_id " +
+        "FROM item i WHERE i.available AND (:text <% i.name OR :text <% i.description) " +
+        "ORDER BY GREATEST(word_similarity(:text, i.name), word_similarity(:text, i.description)) DESC, i.id";
+
+    @Override
+    @EntityGraph(Item.DETAILS_GRAPH)
+    Optional<Item> findById(Long id);
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long ownerId, Sort sort);
 
     List<Item> findAllByNameContainingIgnoreCase(String text);
@@ -17,4 +30,34 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByRequest(ItemRequest request);
 
     List<Item> findAllByRequestIn(List<ItemRequest> requests);
+
+    List<Item> findAllByAvailableTrue();
+
+    /**
+     * The next chunk of available items after {@code id}, for walking the catalogue in id order.
+     */
+    List<Item> findAllByAvailableTrueAndIdGreaterThan(Long id, Pageable page);
+
+    @Query(value = "SELECT version FROM item WHERE id = :id", nativeQuery = true)
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(value = "SELECT i.id, i.name, i.description, i.available, i.owner_id, i.request_id FROM item i " +
+        "WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query) " +
+        "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id",
+        nativeQuery = true)
+    List<Item> searchByTsQuery(@Param("query") String query, Pageable page);
+
+    /**
+     * Items whose name or description contains a word similar to {@code text}. The {@code <%} operators
+     * are served by the trigram GIN indexes and compare against {@code pg_trgm.word_similarity_threshold},
+     * so call {@link #setWordSimilarityThreshold} in the same transaction first.
+     */
+    @Query(value = SIMILARITY_QUERY, nativeQuery = true)
+    List<Item> searchBySimilarity(@Param("text") String text, Pageable page);
+
+    @Query("SELECT i FROM Item i WHERE i.available = true " +
+        "AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) " +
+        "OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
+        "ORDER BY i.id")
+    List<Item> searchAvailableByText(@Param("text") String text, Pageable page);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Optional;
+
+public interface ItemRepositoryCustom {
+    /**
+     * Sets the non-null fields of an item owned by the user and increments its version in a single UPDATE
+     * guarded by the owner. Returns the item as it was before the update, or empty when the user owns no such item.
+     * The returned owner and request carry ids only.
+     */
+    Optional<Item> updateOwned(Long itemId, Long ownerId, String name, String description, Boolean available);
+
+    void incrementVersion(Long itemId);
+
+    /**
+     * Items embed users through their comments: the commenter, the item owner and the request creator.
+     */
+    void incrementVersionsEmbeddingUser(Long userId);
+
+    /**
+     * Sets the threshold of PostgreSQL's {@code <%} operators for the rest of the current transaction.
+     */
+    void setWordSimilarityThreshold(double threshold);
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final String COLUMNS = "id, name, description, available, owner_id, request_id";
+
+    private final EntityManager entityManager;
+    private final boolean postgres;
+
+    public ItemRepositoryCustomImpl(EntityManager entityManager, DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Item toItem(Object[] row) {
+        Long requestId = toLong(row[5]);
+        return Item.builder()
+            .id(toLong(row[0]))
+            .name((String) row[1])
+            .description((String) row[2])
+            .available((Boolean) row[3])
+            .owner(User.builder().id(toLong(row[4])).build())
+            .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+            .build();
+    }
+
+    /**
+     * PostgreSQL: the CTE locks the row and keeps its old values, which RETURNING hands back.
+     */
+    private static String postgresUpdate(String assignments) {
+        return "WITH old AS (SELECT " + COLUMNS + " FROM item WHERE id = :itemId FOR UPDATE) " +
+            "UPDATE item SET " + assignments + " FROM old " +
+            "WHERE item.id = old.id AND item.owner_id = :ownerId " +
+            "RETURNING old.id, old.name, old.description, old.available, old.owner_id, old.request_id";
+    }
+
+    /**
+     * H2 fallback for tests: a data change delta table reads the updated row as it was before the update.
+     */
+    private static String h2Update(String assignments) {
+        return "SELECT " + COLUMNS + " FROM OLD TABLE " +
+            "(UPDATE item SET " + assignments + " WHERE id = :itemId AND owner_id = :ownerId)";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Item> updateOwned(Long itemId, Long ownerId, String name, String description, Boolean available) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (name != null) {
+            values.put("name", name);
+        }
+        if (description != null) {
+            values.put("description", description);
+        }
+        if (available != null) {
+            values.put("available", available);
+        }
+        String sql;
+        if (values.isEmpty()) {
+            sql = "SELECT " + COLUMNS + " FROM item WHERE id = :itemId AND owner_id = :ownerId";
+        } else {
+            String assignments = values.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", ")) + ", version = version + 1";
+            sql = postgres ? postgresUpdate(assignments) : h2Update(assignments);
+        }
+        Query query = entityManager.createNativeQuery(sql)
+            .setParameter("itemId", itemId)
+            .setParameter("ownerId", ownerId);
+        values.forEach(query::setParameter);
+        List<Object[]> rows = query.getResultList();
+        if (!values.isEmpty()) {
+            entityManager.clear();
+        }
+        return rows.stream().findFirst().map(ItemRepositoryCustomImpl::toItem);
+    }
+
+    @Override
+    public void incrementVersion(Long itemId) {
+        entityManager.createNativeQuery("UPDATE item SET version = version + 1 WHERE id = :itemId")
+            .setParameter("itemId", itemId)
+            .executeUpdate();
+    }
+
+    @Override
+    public void incrementVersionsEmbeddingUser(Long userId) {
+        entityManager.createNativeQuery("UPDATE item SET version = version + 1 WHERE owner_id = :userId " +
+                "OR id IN (SELECT item_id FROM comment WHERE user_id = :userId) " +
+                "OR request_id IN (SELECT id FROM item_request WHERE creator_id = :userId)")
+            .setParameter("userId", userId)
+            .executeUpdate();
+    }
+
+    @Override
+    public void setWordSimilarityThreshold(double threshold) {
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+            .setParameter("threshold", String.valueOf(threshold))
+            .getSingleResult();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Search served by the database, so every server node sees the same index.
+ * On PostgreSQL it uses the GIN-indexed {@code item.search_vector} column ranked by {@code ts_rank},
+ * with every term matched as a prefix, and the trigram-indexed pg_trgm word similarity operator for fuzzy search.
+ * Other databases fall back to a case-insensitive substring match and to trigram similarity computed
+ * in memory over available items, read in chunks and keeping only the best matches up to the requested page.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearch implements ItemSearch {
+    private static final int FALLBACK_SCAN_CHUNK = 500;
+    private final ItemRepository itemRepository;
+    private final boolean fullText;
+
+    public DatabaseItemSearch(ItemRepository itemRepository, DataSource dataSource) {
+        this.itemRepository = itemRepository;
+        this.fullText = isPostgres(dataSource);
+        log.info("Item search runs on the database, full-text: {}.", fullText);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        List<String> terms = SearchTerms.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (fullText) {
+            String query = terms.stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+            return itemRepository.searchByTsQuery(query, page);
+        }
+        return itemRepository.searchAvailableByText(text.trim(), page);
+    }
+
+    /**
+     * Transactional so that the PostgreSQL similarity threshold, set locally, applies to the search.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> searchFuzzy(String text, Pageable page) {
+        List<String> terms = SearchTerms.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (fullText) {
+            itemRepository.setWordSimilarityThreshold(Trigrams.SIMILARITY_THRESHOLD);
+            return itemRepository.searchBySimilarity(String.join(" ", terms), page);
+        }
+        Comparator<Map.Entry<Item, Double>> ranking = Map.Entry.<Item, Double>comparingByValue().reversed()
+            .thenComparing(entry -> entry.getKey().getId());
+        long limit = page.isPaged() ? page.getOffset() + page.getPageSize() : Long.MAX_VALUE;
+        PriorityQueue<Map.Entry<Item, Double>> best = new PriorityQueue<>(ranking.reversed());
+        long lastId = 0;
+        List<Item> chunk;
+        do {
+            chunk = itemRepository.findAllByAvailableTrueAndIdGreaterThan(
+                lastId, PageRequest.of(0, FALLBACK_SCAN_CHUNK, Sort.by("id"))
+            );
+            for (Item item : chunk) {
+                double score = score(terms, item);
+                if (score > 0) {
+                    best.add(Map.entry(item, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == FALLBACK_SCAN_CHUNK);
+        return best.stream()
+            .sorted(ranking)
+            .skip(page.isPaged() ? page.getOffset() : 0)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Sum of the best similarity of each term, or -1 if some term has no similar token.
+     */
+    private static double score(List<String> terms, Item item) {
+        List<String> tokens = SearchTerms.tokenize(item.getName() + " " + item.getDescription());
+        double score = 0;
+        for (String term : terms) {
+            double best = tokens.stream()
+                .mapToDouble(token -> Trigrams.similarity(term, token))
+                .max()
+                .orElse(0);
+            if (best < Trigrams.SIMILARITY_THRESHOLD) {
+                return -1;
+            }
+            score += best;
+        }
+        return score;
+    }
+}
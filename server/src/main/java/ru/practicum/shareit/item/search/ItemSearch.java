@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Full-text search over available items, most relevant first.
+ * Fuzzy search tolerates typos by matching terms on trigram similarity.
+ * Implementations that keep their own index are notified of item writes.
+ */
+public interface ItemSearch {
+    List<Item> search(String text, Pageable page);
+
+    List<Item> searchFuzzy(String text, Pageable page);
+
+    default void onSaved(Item item) {
+    }
+
+    default void onDeleted(Long itemId) {
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded (W-TinyLFU) cache of search result pages keyed by the normalized query and page,
+ * weighed by the number of items a page holds. Unpaged results are not cached.
+ * An item write invalidates every page of the queries the item matched before or matches after the write,
+ * judged by every query term occurring in its name or description, which any search backend implies.
+ * Cached queries are indexed by their longest term, and a write looks up only the substrings of the item's words,
+ * so its cost depends on the item's text rather than on the size of the cache.
+ * Loads that overlap a write are not cached, so a page read before the commit can't outlive it.
+ * Invalidation only sees writes made on this node, so pages also expire {@code expire-after-write-ms}
+ * (30 s by default) after they are cached: that is how long a write on another node can stay unseen here.
+ */
+@Component
+public class ItemSearchCache {
+    private final Cache<Query, List<Item>> cache;
+    private final ConcurrentMap<String, Set<Query>> queriesByTerm = new ConcurrentHashMap<>();
+    private final AtomicInteger longestTerm = new AtomicInteger();
+    private final AtomicLong writes = new AtomicLong();
+
+    @Autowired
+    public ItemSearchCache(
+        @Value("${shareit.item.search.cache.max-items:100000}") long maximumItems,
+        @Value("${shareit.item.search.cache.expire-after-write-ms:30000}") long expireAfterWriteMillis,
+        MeterRegistry meterRegistry
+    ) {
+        this(maximumItems, expireAfterWriteMillis, meterRegistry, Ticker.systemTicker());
+    }
+
+    public ItemSearchCache(long maximumItems, long expireAfterWriteMillis, MeterRegistry meterRegistry, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumItems)
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+            .ticker(ticker)
+            .weigher((Query query, List<Item> items) -> 1 + items.size())
+            .executor(Runnable::run)
+            .removalListener((Query query, List<Item> items, RemovalCause cause) -> {
+                if (query != null && cause != RemovalCause.REPLACED) {
+                    unindex(query);
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.search");
+    }
+
+    private static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void index(Query query) {
+        String term = query.getIndexTerm();
+        longestTerm.accumulateAndGet(term.length(), Math::max);
+        queriesByTerm.compute(term, (key, queries) -> {
+            Set<Query> current = queries != null ? queries : ConcurrentHashMap.newKeySet();
+            current.add(query);
+            return current;
+        });
+    }
+
+    private void unindex(Query query) {
+        queriesByTerm.computeIfPresent(query.getIndexTerm(), (key, queries) -> {
+            queries.remove(query);
+            return queries.isEmpty() ? null : queries;
+        });
+    }
+
+    /**
+     * Drops the pages of every cached query that matches one of the snapshots. A matching query's index term
+     * occurs in one of the item's words, so only the substrings of those words are looked up.
+     */
+    private void invalidate(List<Snapshot> snapshots) {
+        writes.incrementAndGet();
+        int maxLength = longestTerm.get();
+        for (Snapshot snapshot : snapshots) {
+            for (String word : snapshot.getWords()) {
+                for (int start = 0; start < word.length(); start++) {
+                    for (int end = start + 1; end <= Math.min(word.length(), start + maxLength); end++) {
+                        Set<Query> queries = queriesByTerm.get(word.substring(start, end));
+                        if (queries != null) {
+                            queries.stream()
+                                .filter(query -> query.matches(snapshot))
+                                .collect(Collectors.toList())
+                                .forEach(cache::invalidate);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public List<Item> get(String text, Pageable page, Supplier<List<Item>> loader) {
+        if (page.isUnpaged()) {
+            return loader.get();
+        }
+        Query query = new Query(normalize(text), page.getOffset(), page.getPageSize());
+        if (query.getTerms().isEmpty()) {
+            return loader.get();
+        }
+        List<Item> cached = cache.getIfPresent(query);
+        if (cached != null) {
+            return cached;
+        }
+        long writesBefore = writes.get();
+        List<Item> loaded = List.copyOf(loader.get());
+        if (writes.get() == writesBefore) {
+            cache.put(query, loaded);
+            index(query);
+            if (writes.get() != writesBefore) {
+                cache.invalidate(query);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidates queries matching either version of a saved item; {@code before} is null for a new item.
+     */
+    public void onSaved(Item before, Item saved) {
+        List<Snapshot> snapshots = Snapshot.of(List.of(before == null ? saved : before, saved));
+        afterCommit(() -> invalidate(snapshots));
+    }
+
+    /**
+     * Invalidates queries matching any of the new items.
+     */
+    public void onCreated(List<Item> created) {
+        List<Snapshot> snapshots = Snapshot.of(created);
+        afterCommit(() -> invalidate(snapshots));
+    }
+
+    public void onDeleted(Item deleted) {
+        List<Snapshot> snapshots = Snapshot.of(List.of(deleted));
+        afterCommit(() -> invalidate(snapshots));
+    }
+
+    @lombok.Value
+    private static class Snapshot {
+        String text;
+        Set<String> words;
+
+        static List<Snapshot> of(List<Item> items) {
+            return items.stream()
+                .map(Snapshot::of)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        }
+
+        static Snapshot of(Item item) {
+            if (item == null || !Boolean.TRUE.equals(item.getAvailable())) {
+                return null;
+            }
+            String text = (item.getName() + " " + item.getDescription()).toLowerCase(Locale.ROOT);
+            return new Snapshot(text, Set.copyOf(SearchTerms.tokenize(text)));
+        }
+    }
+
+    @lombok.Value
+    private static class Query {
+        String text;
+        long offset;
+        int size;
+        @EqualsAndHashCode.Exclude
+        List<String> terms;
+
+        Query(String text, long offset, int size) {
+            this.text = text;
+            this.offset = offset;
+            this.size = size;
+            this.terms = SearchTerms.tokenize(text);
+        }
+
+        String getIndexTerm() {
+            return terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        }
+
+        boolean matches(Snapshot item) {
+            return terms.stream().allMatch(item.getText()::contains);
+        }
+    }
+}
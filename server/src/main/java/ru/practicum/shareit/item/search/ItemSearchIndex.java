@@ -0,0 +1,214 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over names and descriptions of available items.
+ * Every query term has to match the start of some token of an item (AND semantics);
+ * matches are ordered by relevance, where a name hit weighs more than a description hit
+ * and a whole-token hit more than a prefix hit. Fuzzy search instead matches each term against
+ * tokens of similar trigrams and weighs hits by their similarity.
+ * Built from the database once the application is ready and kept current by item writes after commit.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "memory")
+@RequiredArgsConstructor
+public class ItemSearchIndex implements ItemSearch {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_TOKEN_BONUS = 2;
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedItem> items = new ConcurrentHashMap<>();
+    private final TokenTrigrams tokenTrigrams = new TokenTrigrams();
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private synchronized void index(IndexedItem item) {
+        unindex(item.getId());
+        if (!item.isAvailable()) {
+            return;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        SearchTerms.tokenize(item.getName()).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+        SearchTerms.tokenize(item.getDescription())
+            .forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+        weights.forEach((token, weight) -> postings.computeIfAbsent(token, key -> {
+            tokenTrigrams.add(key);
+            return new ConcurrentHashMap<>();
+        }).put(item.getId(), weight));
+        items.put(item.getId(), item.withTokens(Set.copyOf(weights.keySet())));
+    }
+
+    private synchronized void unindex(Long itemId) {
+        IndexedItem indexed = items.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        for (String token : indexed.getTokens()) {
+            Map<Long, Integer> itemWeights = postings.get(token);
+            if (itemWeights != null) {
+                itemWeights.remove(itemId);
+                if (itemWeights.isEmpty()) {
+                    postings.remove(token);
+                    tokenTrigrams.remove(token);
+                }
+            }
+        }
+    }
+
+    private Map<Long, Double> matchPrefix(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        postings.subMap(term, true, term + Character.MAX_VALUE, true).forEach((token, itemWeights) -> {
+            int bonus = token.equals(term) ? EXACT_TOKEN_BONUS : 1;
+            itemWeights.forEach((itemId, weight) -> scores.merge(itemId, (double) weight * bonus, Double::sum));
+        });
+        return scores;
+    }
+
+    private Map<Long, Double> matchSimilar(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        tokenTrigrams.similar(term, Trigrams.SIMILARITY_THRESHOLD).forEach((token, similarity) -> {
+            Map<Long, Integer> itemWeights = postings.get(token);
+            if (itemWeights != null) {
+                itemWeights.forEach((itemId, weight) -> scores.merge(itemId, weight * similarity, Math::max));
+            }
+        });
+        return scores;
+    }
+
+    private List<Item> rank(String text, Pageable page, Function<String, Map<Long, Double>> matcher) {
+        Set<String> terms = new LinkedHashSet<>(SearchTerms.tokenize(text));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        List<Map<Long, Double>> matches = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, Double> termMatches = matcher.apply(term);
+            if (termMatches.isEmpty()) {
+                return List.of();
+            }
+            matches.add(termMatches);
+        }
+        matches.sort(Comparator.comparingInt(Map::size));
+
+        Map<Long, Double> scores = new HashMap<>(matches.get(0));
+        for (Map<Long, Double> termMatches : matches.subList(1, matches.size())) {
+            scores.keySet().retainAll(termMatches.keySet());
+            termMatches.forEach((itemId, score) -> scores.computeIfPresent(itemId, (id, total) -> total + score));
+        }
+        Stream<Map.Entry<Long, Double>> ranked = scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        if (page.isPaged()) {
+            ranked = ranked.skip(page.getOffset()).limit(page.getPageSize());
+        }
+        return ranked
+            .map(entry -> items.get(entry.getKey()))
+            .filter(Objects::nonNull)
+            .map(IndexedItem::toItem)
+            .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        postings.clear();
+        items.clear();
+        tokenTrigrams.clear();
+        itemRepository.findAllByAvailableTrue().forEach(item -> index(IndexedItem.of(item)));
+        log.info("Search index built for {} items and {} tokens.", items.size(), postings.size());
+    }
+
+    @Override
+    public void onSaved(Item item) {
+        IndexedItem indexed = IndexedItem.of(item);
+        afterCommit(() -> index(indexed));
+    }
+
+    @Override
+    public void onDeleted(Long itemId) {
+        afterCommit(() -> unindex(itemId));
+    }
+
+    /**
+     * Returns available items matching every term of the text, most relevant first.
+     * Items carry id, name, description, availability and request id only.
+     */
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return rank(text, page, this::matchPrefix);
+    }
+
+    @Override
+    public List<Item> searchFuzzy(String text, Pageable page) {
+        return rank(text, page, this::matchSimilar);
+    }
+
+    @Value
+    private static class IndexedItem {
+        Long id;
+        String name;
+        String description;
+        boolean available;
+        Long requestId;
+        @With
+        Set<String> tokens;
+
+        static IndexedItem of(Item item) {
+            Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+            return new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), requestId, Set.of());
+        }
+
+        Item toItem() {
+            return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                .build();
+        }
+    }
+}
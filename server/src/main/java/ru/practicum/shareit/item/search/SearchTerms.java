@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@UtilityClass
+public class SearchTerms {
+    /**
+     * Splits text into lower-cased runs of letters and digits.
+     */
+    public List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(token -> !token.isEmpty())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram index over the token vocabulary of {@link ItemSearchIndex}, used to find tokens similar to a misspelt term.
+ */
+class TokenTrigrams {
+    private final Map<String, Set<String>> tokensByTrigram = new ConcurrentHashMap<>();
+    private final Map<String, Integer> trigramCounts = new ConcurrentHashMap<>();
+
+    void add(String token) {
+        Set<String> trigrams = Trigrams.of(token);
+        trigramCounts.put(token, trigrams.size());
+        trigrams.forEach(trigram -> tokensByTrigram.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet())
+            .add(token));
+    }
+
+    void remove(String token) {
+        trigramCounts.remove(token);
+        for (String trigram : Trigrams.of(token)) {
+            Set<String> tokens = tokensByTrigram.get(trigram);
+            if (tokens != null) {
+                tokens.remove(token);
+                if (tokens.isEmpty()) {
+                    tokensByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        tokensByTrigram.clear();
+        trigramCounts.clear();
+    }
+
+    /**
+     * Returns tokens whose similarity to the term reaches the threshold, with that similarity.
+     */
+    Map<String, Double> similar(String term, double threshold) {
+        Set<String> termTrigrams = Trigrams.of(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : termTrigrams) {
+            Set<String> tokens = tokensByTrigram.get(trigram);
+            if (tokens != null) {
+                tokens.forEach(token -> shared.merge(token, 1, Integer::sum));
+            }
+        }
+        Map<String, Double> similarities = new HashMap<>();
+        shared.forEach((token, count) -> {
+            Integer tokenTrigrams = trigramCounts.get(token);
+            if (tokenTrigrams != null) {
+                double similarity = Trigrams.similarity(count, termTrigrams.size(), tokenTrigrams);
+                if (similarity >= threshold) {
+                    similarities.put(token, similarity);
+                }
+            }
+        });
+        return similarities;
+    }
+}
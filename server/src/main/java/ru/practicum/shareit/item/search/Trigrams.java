@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Trigram similarity between single tokens, computed the way pg_trgm does it:
+ * a token is padded with two spaces in front and one behind, and similarity is the share
+ * of trigrams the two tokens have in common among all their distinct trigrams.
+ */
+@UtilityClass
+public class Trigrams {
+    public static final double SIMILARITY_THRESHOLD = 0.3;
+
+    public Set<String> of(String token) {
+        String padded = "  " + token + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    public double similarity(int shared, int first, int second) {
+        return (double) shared / (first + second - shared);
+    }
+
+    public double similarity(String first, String second) {
+        Set<String> firstTrigrams = of(first);
+        Set<String> secondTrigrams = of(second);
+        int shared = 0;
+        for (String trigram : firstTrigrams) {
+            if (secondTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        return similarity(shared, firstTrigrams.size(), secondTrigrams.size());
+    }
+}
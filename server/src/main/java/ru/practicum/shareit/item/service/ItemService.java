@@ -3,16 +3,19 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.model.Item;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     Item createItem(Item item, Long owner);
 
+    List<Item> createItems(List<Item> items, Long owner);
+
     OutgoingItemDto getItemById(Long id, Long user);
 
     Item getItem(Long id);
 
-    Item updateItem(Item item, Long userId);
+    Item updateItem(Long itemId, Item patch, Long userId);
 
     void deleteItemById(Long id);
 
@@ -20,6 +23,14 @@ public interface ItemService {
 
     List<Item> search(String text);
 
+    List<Item> search(String text, Integer from, Integer size);
+
+    List<Item> searchFuzzy(String text, Integer from, Integer size);
+
+    List<String> suggest(String prefix, Integer size);
+
+    List<Item> findAvailable(LocalDateTime start, LocalDateTime end, String text, Integer from, Integer size);
+
     Comment createComment(Comment comment, Long itemId, Long userId);
 
     List<Comment> getItemComments(Long itemId);
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
 import ru.practicum.shareit.booking.dto.OutForItemBooking;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,9 +20,14 @@ import ru.practicum.shareit.item.dto.ItemDtoMapper;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -29,12 +37,17 @@ import java.util.stream.Collectors;
 @Transactional
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int AVAILABLE_SCAN_CHUNK = 100;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ItemSearch itemSearch;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemRequestRepository itemRequestRepository;
     private final Sort byStartBookingDescSorting = Sort.by(Sort.Direction.DESC, "start");
-    private final Sort byStartBookingAscSorting = Sort.by(Sort.Direction.ASC, "start");
     private final Sort byIdItemAscSorting = Sort.by(Sort.Direction.ASC, "id");
 
     private User getUserById(Long userId) {
@@ -47,55 +60,69 @@ public class ItemServiceImpl implements ItemService {
         return commentRepository.findAllByItem(item);
     }
 
-    private OutForItemBooking getLastBooking(List<OutForItemBooking> dtoBookings) {
-        List<OutForItemBooking> allPastBookings = dtoBookings.stream()
-            .filter(
-                dto -> dto.getStart().isBefore(LocalDateTime.now()) &&
-                    dto.getStatus().equals(Status.APPROVED)
-            )
-            .collect(Collectors.toList());
-        if (!allPastBookings.isEmpty()) {
-            return allPastBookings.get(allPastBookings.size() - 1);
-        } else {
-            return null;
-        }
+    private Map<Long, List<Comment>> getCommentsByItems(List<Item> items) {
+        return commentRepository.findAllByItemIn(items).stream()
+            .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
     }
 
-    private OutForItemBooking getNextBooking(List<OutForItemBooking> dtoBookings) {
-        dtoBookings = dtoBookings.stream()
-            .filter(
-                dtoBooking -> dtoBooking.getStart().isAfter(LocalDateTime.now()) &&
-                    dtoBooking.getStatus().equals(Status.APPROVED)
-            )
-            .collect(Collectors.toList());
-        if (!dtoBookings.isEmpty()) {
-            return dtoBookings.get(0);
-        } else {
-            return null;
+    private Map<Long, List<Booking>> getLastAndNextBookingsByItems(List<Item> items, LocalDateTime now) {
+        if (items.isEmpty()) {
+            return Map.of();
         }
+        List<Long> itemIds = items.stream()
+            .map(Item::getId)
+            .collect(Collectors.toList());
+        return bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now).stream()
+            .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
     }
 
-    private List<OutForItemBooking> getBookingsByItems(Item item) {
-        List<Booking> bookings = bookingRepository.findAllByItemIn(List.of(item), byStartBookingAscSorting);
-        return BookingDtoMapper.toOutForItemDtoList(bookings);
+    /**
+     * Request representations list the items that answer them.
+     */
+    private void onRequestsAnswered(Collection<Item> items) {
+        Set<Long> requestIds = items.stream()
+            .filter(item -> item.getRequest() != null)
+            .map(item -> item.getRequest().getId())
+            .collect(Collectors.toSet());
+        if (!requestIds.isEmpty()) {
+            itemRequestRepository.incrementVersions(requestIds);
+        }
     }
 
-    private Map<Item, List<Booking>> getBookingsByItems(List<Item> items) {
-        List<Booking> bookings = bookingRepository.findAllByItemIn(items, byStartBookingAscSorting);
-        Map<Item, List<Booking>> bookingsByItems = new HashMap<>();
-        for (Item item : items) {
-            List<Booking> itemBookings = bookings.stream()
-                .filter(booking -> booking.getItem().equals(item))
-                .collect(Collectors.toList());
-            bookingsByItems.put(item, itemBookings);
+    private void setLastAndNextBookings(OutgoingItemDto dtoItem, List<Booking> bookings, LocalDateTime now) {
+        for (Booking booking : bookings) {
+            OutForItemBooking dtoBooking = BookingDtoMapper.toOutForItemDto(booking);
+            if (booking.getStart().isBefore(now)) {
+                dtoItem.setLastBooking(dtoBooking);
+            } else {
+                dtoItem.setNextBooking(dtoBooking);
+            }
         }
-        return bookingsByItems;
     }
 
     @Override
     public Item createItem(Item item, Long itemOwnerId) {
         item.setOwner(getUserById(itemOwnerId));
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemSearch.onSaved(saved);
+        itemSearchCache.onSaved(null, saved);
+        itemSuggestIndex.onSaved(saved);
+        onRequestsAnswered(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public List<Item> createItems(List<Item> items, Long owner) {
+        User user = getUserById(owner);
+        items.forEach(item -> item.setOwner(user));
+        List<Item> saved = itemRepository.saveAll(items);
+        saved.forEach(item -> {
+            itemSearch.onSaved(item);
+            itemSuggestIndex.onSaved(item);
+        });
+        onRequestsAnswered(saved);
+        itemSearchCache.onCreated(saved);
+        return saved;
     }
 
     @Override
@@ -109,9 +136,10 @@ public class ItemServiceImpl implements ItemService {
         dtoItem.setComments(getCommentsByItem(item));
 
         if (Objects.equals(item.getOwner().getId(), user)) {
-            List<OutForItemBooking> bookings = getBookingsByItems(item);
-            dtoItem.setLastBooking(getLastBooking(bookings));
-            dtoItem.setNextBooking(getNextBooking(bookings));
+            LocalDateTime now = LocalDateTime.now();
+            List<Booking> bookings = getLastAndNextBookingsByItems(List.of(item), now)
+                .getOrDefault(item.getId(), List.of());
+            setLastAndNextBookings(dtoItem, bookings, now);
         }
         return dtoItem;
     }
@@ -125,37 +153,59 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public Item updateItem(Item item, Long userId) {
-        if (!Objects.equals(item.getOwner().getId(), userId)) {
-            throw new BookingNoAccessException(
-                String.format("User %d is not owner of Item %d.", userId, item.getId())
-            );
-        }
-        return itemRepository.save(item);
+    public Item updateItem(Long itemId, Item patch, Long userId) {
+        Item before = itemRepository.updateOwned(
+            itemId, userId, patch.getName(), patch.getDescription(), patch.getAvailable()
+        ).orElseThrow(() -> {
+            if (!itemRepository.existsById(itemId)) {
+                return new NotFoundException(String.format("Item %d is not found.", itemId));
+            }
+            return new BookingNoAccessException(String.format("User %d is not owner of Item %d.", userId, itemId));
+        });
+        Item updated = Item.builder()
+            .id(before.getId())
+            .name(before.getName())
+            .description(before.getDescription())
+            .available(before.getAvailable())
+            .owner(before.getOwner())
+            .request(before.getRequest())
+            .build();
+        ItemDtoMapper.partialMapToItem(patch, updated);
+        itemSearch.onSaved(updated);
+        itemSearchCache.onSaved(before, updated);
+        itemSuggestIndex.onSaved(updated);
+        onRequestsAnswered(List.of(updated));
+        return updated;
     }
 
     @Override
     public void deleteItemById(Long id) {
+        itemRepository.findById(id).ifPresent(item -> {
+            itemSearchCache.onDeleted(item);
+            onRequestsAnswered(List.of(item));
+        });
         itemRepository.deleteById(id);
+        availabilityIndex.onItemDeleted(id);
+        itemSearch.onDeleted(id);
+        itemSuggestIndex.onDeleted(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutgoingItemDto> getUserItems(Long userId) {
         List<Item> items = itemRepository.findAllByOwnerId(userId, byIdItemAscSorting);
-        Map<Item, List<Booking>> bookingsByItems = getBookingsByItems(items);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Booking>> bookingsByItems = getLastAndNextBookingsByItems(items, now);
+        Map<Long, List<Comment>> commentsByItems = getCommentsByItems(items);
         List<OutgoingItemDto> itemDtos = new ArrayList<>();
 
         for (Item item : items) {
             OutgoingItemDto dtoItem = ItemDtoMapper.toOutgoingDto(item);
 
-            dtoItem.setComments(getCommentsByItem(item));
+            dtoItem.setComments(commentsByItems.getOrDefault(item.getId(), List.of()));
 
             if (Objects.equals(item.getOwner().getId(), userId)) {
-                List<Booking> bookings = bookingsByItems.get(item);
-                List<OutForItemBooking> outForItemBookings = BookingDtoMapper.toOutForItemDtoList(bookings);
-                dtoItem.setLastBooking(getLastBooking(outForItemBookings));
-                dtoItem.setNextBooking(getNextBooking(outForItemBookings));
+                setLastAndNextBookings(dtoItem, bookingsByItems.getOrDefault(item.getId(), List.of()), now);
             }
 
             itemDtos.add(dtoItem);
@@ -164,19 +214,69 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Item> search(String text) {
-        if (text.isEmpty()) {
-            return new ArrayList<>();
+        return itemSearchCache.get(text, Pageable.unpaged(), () -> itemSearch.search(text, Pageable.unpaged()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Item> search(String text, Integer from, Integer size) {
+        Pageable page = PageRequest.of(from / size, size);
+        return itemSearchCache.get(text, page, () -> itemSearch.search(text, page));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Item> searchFuzzy(String text, Integer from, Integer size) {
+        Pageable page = from == null || size == null ? Pageable.unpaged() : PageRequest.of(from / size, size);
+        return itemSearch.searchFuzzy(text, page);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggest(String prefix, Integer size) {
+        return itemSuggestIndex.suggest(prefix, size == null ? ItemSuggestIndex.MAX_SUGGESTIONS : size);
+    }
+
+    /**
+     * Walks the candidates in chunks and stops once {@code size} free items after the first {@code from}
+     * are collected, so neither the catalogue nor the full search result is loaded at once.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAvailable(LocalDateTime start, LocalDateTime end, String text, Integer from, Integer size) {
+        if (!end.isAfter(start)) {
+            throw new ValidationException(String.format("Period from %s to %s is empty.", start, end));
+        }
+        boolean byText = text != null && !text.isBlank();
+        List<Item> found = new ArrayList<>();
+        int skipped = 0;
+        long lastId = 0;
+        for (int chunkNumber = 0; ; chunkNumber++) {
+            List<Item> chunk = byText
+                ? itemSearch.search(text, PageRequest.of(chunkNumber, AVAILABLE_SCAN_CHUNK))
+                : itemRepository.findAllByAvailableTrueAndIdGreaterThan(
+                    lastId, PageRequest.of(0, AVAILABLE_SCAN_CHUNK, byIdItemAscSorting)
+                );
+            for (Item item : chunk) {
+                if (!availabilityIndex.isFree(item.getId(), start, end)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                    continue;
+                }
+                found.add(item);
+                if (found.size() == size) {
+                    return found;
+                }
+            }
+            if (chunk.size() < AVAILABLE_SCAN_CHUNK) {
+                return found;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
         }
-        List<Item> allMatchesByName = itemRepository.findAllByNameContainingIgnoreCase(text);
-        List<Item> allMatchesByDescription = itemRepository.findAllByDescriptionContainingIgnoreCase(text);
-        List<Item> items = new ArrayList<>(allMatchesByName);
-        items.addAll(allMatchesByDescription);
-        return items.stream()
-            .distinct()
-            .filter(Item::getAvailable)
-            .collect(Collectors.toList());
     }
 
     @Override
@@ -202,7 +302,9 @@ public class ItemServiceImpl implements ItemService {
             () -> new NotFoundException(String.format("Item %d is not found.", itemId))
         ));
         comment.setAuthorName(user.getName());
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        itemRepository.incrementVersion(itemId);
+        return saved;
     }
 
     @Override
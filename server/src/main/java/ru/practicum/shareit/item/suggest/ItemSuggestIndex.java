@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Autocomplete over names of available items, ranked by how many times items of that name were booked.
+ * Items sharing a name (ignoring case) are suggested once.
+ * Built from the database once the application is ready and kept current by item and booking writes after commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final Map<Long, String> namesByItem = new HashMap<>();
+    private final Map<String, Map<Long, String>> itemsByKey = new HashMap<>();
+    private final Map<Long, Long> bookingsByItem = new HashMap<>();
+    private volatile NameTrie trie = new NameTrie(MAX_SUGGESTIONS);
+
+    private static String keyOf(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void refresh(String key) {
+        Map<Long, String> items = itemsByKey.get(key);
+        if (items == null) {
+            trie.remove(key);
+            return;
+        }
+        long popularity = items.keySet().stream()
+            .mapToLong(itemId -> bookingsByItem.getOrDefault(itemId, 0L))
+            .sum();
+        trie.put(key, items.values().iterator().next(), popularity);
+    }
+
+    private void unindex(Long itemId) {
+        String name = namesByItem.remove(itemId);
+        if (name == null) {
+            return;
+        }
+        String key = keyOf(name);
+        Map<Long, String> items = itemsByKey.get(key);
+        items.remove(itemId);
+        if (items.isEmpty()) {
+            itemsByKey.remove(key);
+        }
+        refresh(key);
+    }
+
+    private synchronized void index(Long itemId, String name, boolean available) {
+        unindex(itemId);
+        if (!available || name == null || name.isBlank()) {
+            return;
+        }
+        String key = keyOf(name);
+        namesByItem.put(itemId, name);
+        itemsByKey.computeIfAbsent(key, k -> new TreeMap<>()).put(itemId, name.strip());
+        refresh(key);
+    }
+
+    private synchronized void remove(Long itemId) {
+        unindex(itemId);
+        bookingsByItem.remove(itemId);
+    }
+
+    private synchronized void book(Long itemId) {
+        bookingsByItem.merge(itemId, 1L, Long::sum);
+        String name = namesByItem.get(itemId);
+        if (name != null) {
+            refresh(keyOf(name));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        namesByItem.clear();
+        itemsByKey.clear();
+        bookingsByItem.clear();
+        trie = new NameTrie(MAX_SUGGESTIONS);
+        bookingRepository.countBookingsByItem()
+            .forEach(count -> bookingsByItem.put(count.getItemId(), count.getBookings()));
+        itemRepository.findAllByAvailableTrue()
+            .forEach(item -> index(item.getId(), item.getName(), true));
+        log.info("Suggest index built for {} names.", itemsByKey.size());
+    }
+
+    public void onSaved(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> index(itemId, name, available));
+    }
+
+    public void onDeleted(Long itemId) {
+        afterCommit(() -> remove(itemId));
+    }
+
+    public void onBooked(Long itemId) {
+        afterCommit(() -> book(itemId));
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@value #MAX_SUGGESTIONS}) names starting with the prefix,
+     * most booked first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return trie.top(prefix.stripLeading().toLowerCase(Locale.ROOT), Math.min(limit, MAX_SUGGESTIONS));
+    }
+}
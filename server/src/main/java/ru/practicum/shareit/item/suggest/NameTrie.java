@@ -0,0 +1,231 @@
+package ru.practicum.shareit.item.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Radix tree over lower-cased item names. Every node keeps the most popular names below it,
+ * so a lookup walks the prefix once and copies at most the requested number of names.
+ * Writes must be serialized by the caller; reads take no locks because nodes only publish immutable arrays.
+ */
+class NameTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator
+        .comparingLong(Suggestion::getPopularity).reversed()
+        .thenComparing(Suggestion::getName);
+
+    private final int capacity;
+    private final Node root = new Node("");
+
+    NameTrie(int capacity) {
+        this.capacity = capacity;
+    }
+
+    private static int commonPrefix(String label, String key, int position) {
+        int length = Math.min(label.length(), key.length() - position);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    /**
+     * Returns up to {@code limit} names starting with the lower-cased prefix, most popular first.
+     */
+    List<String> top(String prefix, int limit) {
+        Node node = root;
+        int position = 0;
+        while (node != null && position < prefix.length()) {
+            Node child = node.child(prefix.charAt(position));
+            if (child == null) {
+                return List.of();
+            }
+            int remaining = prefix.length() - position;
+            if (remaining <= child.label.length()) {
+                node = child.label.regionMatches(0, prefix, position, remaining) ? child : null;
+                position = prefix.length();
+            } else {
+                node = prefix.startsWith(child.label, position) ? child : null;
+                position += child.label.length();
+            }
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Suggestion[] top = node.top;
+        String[] names = new String[Math.min(limit, top.length)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = top[i].getName();
+        }
+        return Arrays.asList(names);
+    }
+
+    void put(String key, String name, long popularity) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                child = new Node(key.substring(position));
+                node.setChild(child);
+            } else {
+                int common = commonPrefix(child.label, key, position);
+                if (common < child.label.length()) {
+                    Node middle = new Node(child.label.substring(0, common));
+                    middle.setChild(child.withLabel(child.label.substring(common)));
+                    middle.top = child.top;
+                    node.setChild(middle);
+                    child = middle;
+                }
+            }
+            position += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        Suggestion previous = node.suggestion;
+        Suggestion updated = new Suggestion(name, popularity);
+        node.suggestion = updated;
+        if (previous == null || previous.getPopularity() <= popularity) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                path.get(i).promote(previous, updated, capacity);
+            }
+        } else {
+            refresh(path);
+        }
+    }
+
+    void remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            node = node.child(key.charAt(position));
+            if (node == null || !key.startsWith(node.label, position)) {
+                return;
+            }
+            position += node.label.length();
+            path.add(node);
+        }
+        if (node.suggestion == null) {
+            return;
+        }
+        node.suggestion = null;
+        if (node != root && node.children.length == 0) {
+            path.remove(path.size() - 1);
+            path.get(path.size() - 1).removeChild(node);
+        }
+        refresh(path);
+    }
+
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).refreshTop(capacity);
+        }
+    }
+
+    private static final class Node {
+        private final String label;
+        private volatile Node[] children = NO_CHILDREN;
+        private volatile Suggestion suggestion;
+        private volatile Suggestion[] top = NO_SUGGESTIONS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node withLabel(String newLabel) {
+            Node node = new Node(newLabel);
+            node.children = children;
+            node.suggestion = suggestion;
+            node.top = top;
+            return node;
+        }
+
+        private int indexOf(char first) {
+            Node[] current = children;
+            int low = 0;
+            int high = current.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = current[middle].label.charAt(0);
+                if (label < first) {
+                    low = middle + 1;
+                } else if (label > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void setChild(Node child) {
+            Node[] current = children;
+            int index = indexOf(child.label.charAt(0));
+            if (index >= 0) {
+                Node[] replaced = current.clone();
+                replaced[index] = child;
+                children = replaced;
+                return;
+            }
+            int position = -index - 1;
+            Node[] inserted = new Node[current.length + 1];
+            System.arraycopy(current, 0, inserted, 0, position);
+            inserted[position] = child;
+            System.arraycopy(current, position, inserted, position + 1, current.length - position);
+            children = inserted;
+        }
+
+        private void removeChild(Node child) {
+            Node[] current = children;
+            int index = indexOf(child.label.charAt(0));
+            if (index < 0) {
+                return;
+            }
+            Node[] removed = new Node[current.length - 1];
+            System.arraycopy(current, 0, removed, 0, index);
+            System.arraycopy(current, index + 1, removed, index, current.length - index - 1);
+            children = removed;
+        }
+
+        /**
+         * Replaces a suggestion by one that is at least as popular, which can only move it up.
+         */
+        private void promote(Suggestion previous, Suggestion updated, int capacity) {
+            Suggestion[] current = top;
+            List<Suggestion> candidates = new ArrayList<>(current.length + 1);
+            for (Suggestion suggestion : current) {
+                if (suggestion != previous) {
+                    candidates.add(suggestion);
+                }
+            }
+            candidates.add(updated);
+            candidates.sort(BY_POPULARITY);
+            top = candidates.subList(0, Math.min(capacity, candidates.size())).toArray(NO_SUGGESTIONS);
+        }
+
+        private void refreshTop(int capacity) {
+            List<Suggestion> candidates = new ArrayList<>();
+            if (suggestion != null) {
+                candidates.add(suggestion);
+            }
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BY_POPULARITY);
+            top = candidates.subList(0, Math.min(capacity, candidates.size())).toArray(NO_SUGGESTIONS);
+        }
+    }
+}
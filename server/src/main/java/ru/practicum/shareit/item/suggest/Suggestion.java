@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.Value;
+
+@Value
+class Suggestion {
+    String name;
+    long popularity;
+}
@@ -2,13 +2,20 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.Resource;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.request.dto.IncomingItemRequestDto;
 import ru.practicum.shareit.request.dto.OutgoingItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.request.dto.ItemRequestDtoMapper.toItemRequest;
 
@@ -18,6 +25,7 @@ import static ru.practicum.shareit.request.dto.ItemRequestDtoMapper.toItemReques
 @Slf4j
 public class ItemRequestController {
     private final ItemRequestService service;
+    private final ResourceVersions resourceVersions;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -52,11 +60,23 @@ public class ItemRequestController {
     }
 
     @GetMapping("{requestId}")
-    public OutgoingItemRequestDto getItemRequest(
+    public ResponseEntity<OutgoingItemRequestDto> getItemRequest(
         @PathVariable("requestId") Long requestId,
-        @RequestHeader(USER_ID_HEADER) Long userId
+        @RequestHeader(USER_ID_HEADER) Long userId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         log.info("Request to get item request.");
-        return service.getItemRequest(requestId, userId);
+        Optional<String> etag = resourceVersions.etag(Resource.REQUEST, requestId, userId);
+        if (etag.isPresent() && ResourceVersions.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+        OutgoingItemRequestDto body = service.getItemRequest(requestId, userId);
+        if (etag.isEmpty()) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(etag.get())
+            .body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.request.repository;
+
+import java.util.Collection;
+
+public interface ItemRequestRepositoryCustom {
+    void incrementVersions(Collection<Long> requestIds);
+}
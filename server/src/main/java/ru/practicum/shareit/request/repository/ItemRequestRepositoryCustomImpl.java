@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.repository;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+public class ItemRequestRepositoryCustomImpl implements ItemRequestRepositoryCustom {
+    private final EntityManager entityManager;
+
+    public ItemRequestRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void incrementVersions(Collection<Long> requestIds) {
+        entityManager.createNativeQuery("UPDATE item_request SET version = version + 1 WHERE id IN (:requestIds)")
+            .setParameter("requestIds", requestIds)
+            .executeUpdate();
+    }
+}
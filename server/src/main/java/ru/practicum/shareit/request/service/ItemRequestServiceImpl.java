@@ -39,7 +39,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private List<Item> getResponsesForRequest(ItemRequest itemRequest) {
-        System.out.println(itemRepository.findAllByRequest(itemRequest));
         return itemRepository.findAllByRequest(itemRequest);
     }
 
@@ -63,7 +62,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         Sort sortByCreationTime = Sort.by(Sort.Direction.DESC, "created");
         List<ItemRequest> requests = requestRepository.findAllByCreator(creator, sortByCreationTime);
         List<Item> responses = getResponsesForRequestList(requests);
-        System.out.println(responses);
         List<OutgoingItemDto> responseDtos = ItemDtoMapper.toOutgoingDtoList(responses);
         List<OutgoingItemRequestDto> dtos = toOutgoingDtoList(requests);
 
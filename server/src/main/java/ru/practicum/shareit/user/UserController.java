@@ -2,13 +2,20 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.Resource;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.user.dto.IncomingUserDto;
 import ru.practicum.shareit.user.dto.OutgoingUserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.user.dto.UserDtoMapper.*;
 
@@ -18,6 +25,7 @@ import static ru.practicum.shareit.user.dto.UserDtoMapper.*;
 @Slf4j
 public class UserController {
     private final UserService service;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     public OutgoingUserDto createUser(@RequestBody IncomingUserDto incomingUserDto) {
@@ -32,16 +40,27 @@ public class UserController {
             @PathVariable Long userId
     ) {
         log.info("Request to update user {}.", userId);
-        User user = service.getUserById(userId);
-        partialUpdateUser(incomingUserDto, user);
-        service.updateUser(user);
-        return toOutgoingDto(user);
+        return toOutgoingDto(service.updateUser(userId, toUser(incomingUserDto)));
     }
 
     @GetMapping("/{userId}")
-    public OutgoingUserDto getUserById(@PathVariable Long userId) {
+    public ResponseEntity<OutgoingUserDto> getUserById(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.info("Request to receive user {}.", userId);
-        return toOutgoingDto(service.getUserById(userId));
+        Optional<String> etag = resourceVersions.etag(Resource.USER, userId);
+        if (etag.isPresent() && ResourceVersions.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+        OutgoingUserDto body = toOutgoingDto(service.getUserById(userId));
+        if (etag.isEmpty()) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(etag.get())
+            .body(body);
     }
 
     @DeleteMapping("/{userId}")
@@ -2,7 +2,6 @@ package ru.practicum.shareit.user.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.user.model.User;
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,21 +35,15 @@ public class UserDtoMapper {
                 .collect(Collectors.toList());
     }
 
-    public void partialUpdateUser(IncomingUserDto dto, User user) {
-        Field[] dtoFields = dto.getClass().getDeclaredFields();
-        Class<? extends User> userClass = user.getClass();
-        for (Field dtoField: dtoFields) {
-            dtoField.setAccessible(true);
-            try {
-                if (dtoField.get(dto) == null) {
-                    continue;
-                }
-                Field userField = userClass.getDeclaredField(dtoField.getName());
-                userField.setAccessible(true);
-                userField.set(user, dtoField.get(dto));
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+    /**
+     * Copies the editable fields that are present in the patch; the id never changes on update.
+     */
+    public void partialUpdateUser(User patch, User user) {
+        if (patch.getName() != null) {
+            user.setName(patch.getName());
+        }
+        if (patch.getEmail() != null) {
+            user.setEmail(patch.getEmail());
         }
     }
 }
\ No newline at end of file
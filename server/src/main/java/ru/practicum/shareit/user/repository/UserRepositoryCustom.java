@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    /**
+     * Sets the non-null fields of the user and increments its version in a single UPDATE.
+     * Returns the updated user, or empty when there is no such user.
+     */
+    Optional<User> updateFields(Long userId, String name, String email);
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final String COLUMNS = "id, name, email";
+
+    private final EntityManager entityManager;
+    private final boolean postgres;
+
+    public UserRepositoryCustomImpl(EntityManager entityManager, DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    private static String postgresUpdate(String assignments) {
+        return "UPDATE users SET " + assignments + " WHERE id = :userId RETURNING " + COLUMNS;
+    }
+
+    /**
+     * H2 fallback for tests: a data change delta table reads the updated row.
+     */
+    private static String h2Update(String assignments) {
+        return "SELECT " + COLUMNS + " FROM FINAL TABLE (UPDATE users SET " + assignments + " WHERE id = :userId)";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<User> updateFields(Long userId, String name, String email) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (name != null) {
+            values.put("name", name);
+        }
+        if (email != null) {
+            values.put("email", email);
+        }
+        String sql;
+        if (values.isEmpty()) {
+            sql = "SELECT " + COLUMNS + " FROM users WHERE id = :userId";
+        } else {
+            String assignments = values.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", ")) + ", version = version + 1";
+            sql = postgres ? postgresUpdate(assignments) : h2Update(assignments);
+        }
+        Query query = entityManager.createNativeQuery(sql)
+            .setParameter("userId", userId);
+        values.forEach(query::setParameter);
+        List<Object[]> rows = query.getResultList();
+        if (!values.isEmpty()) {
+            entityManager.clear();
+        }
+        return rows.stream().findFirst().map(row -> User.builder()
+            .id(((Number) row[0]).longValue())
+            .name((String) row[1])
+            .email((String) row[2])
+            .build());
+    }
+}
@@ -8,7 +8,7 @@ public interface UserService {
 
     User getUserById(Long id);
 
-    User updateUser(User user);
+    User updateUser(Long userId, User patch);
 
     void deleteUserById(Long id);
 
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NonUniqueEmailException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -17,11 +18,12 @@ import java.util.NoSuchElementException;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final ItemRepository itemRepository;
 
     @Override
     public User createUser(User user) {
         try {
-            return repository.save(user);
+            return repository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             throw new NonUniqueEmailException(String.format("Email %s is not unique.", user.getEmail()));
         }
@@ -38,8 +40,18 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User updateUser(User user) {
-        return repository.save(user);
+    public User updateUser(Long userId, User patch) {
+        try {
+            User updated = repository.updateFields(userId, patch.getName(), patch.getEmail()).orElseThrow(
+                () -> new NotFoundException(String.format("User %d is not found", userId))
+            );
+            if (patch.getName() != null || patch.getEmail() != null) {
+                itemRepository.incrementVersionsEmbeddingUser(userId);
+            }
+            return updated;
+        } catch (DataIntegrityViolationException e) {
+            throw new NonUniqueEmailException(String.format("Email %s is not unique.", patch.getEmail()));
+        }
     }
 
     @Override
@@ -0,0 +1,17 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE booking ADD CONSTRAINT booking_approved_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
+
+ALTER TABLE item ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_item_search ON item USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_item_name_trgm ON item USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_item_description_trgm ON item USING gin (description gin_trgm_ops);
@@ -3,35 +3,49 @@ DROP TABLE IF EXISTS booking;
 DROP TABLE IF EXISTS item;
 DROP TABLE IF EXISTS item_request;
 DROP TABLE IF EXISTS users;
+DROP SEQUENCE IF EXISTS comment_seq;
+DROP SEQUENCE IF EXISTS booking_seq;
+DROP SEQUENCE IF EXISTS item_seq;
+DROP SEQUENCE IF EXISTS item_request_seq;
+DROP SEQUENCE IF EXISTS users_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_request_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
     name VARCHAR(100),
     email VARCHAR(320),
+    version BIGINT NOT NULL DEFAULT 0,
     UNIQUE(email)
 );
 
 CREATE TABLE IF NOT EXISTS item_request (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('item_request_seq') PRIMARY KEY,
     description VARCHAR(100),
     created timestamp,
     creator_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_request_to_users FOREIGN KEY(creator_id) REFERENCES users(id)
 );
 
 CREATE TABLE IF NOT EXISTS item (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('item_seq') PRIMARY KEY,
     name VARCHAR(100),
     description VARCHAR(100),
     available BOOLEAN,
     owner_id BIGINT,
     request_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_items_to_users FOREIGN KEY(owner_id) REFERENCES users(id),
     CONSTRAINT fk_items_to_request FOREIGN KEY(request_id) REFERENCES item_request(id)
 );
 
 CREATE TABLE IF NOT EXISTS comment (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('comment_seq') PRIMARY KEY,
     text VARCHAR(100),
     item_id BIGINT,
     user_id BIGINT,
@@ -42,7 +56,7 @@ CREATE TABLE IF NOT EXISTS comment (
 );
 
 CREATE TABLE IF NOT EXISTS booking (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('booking_seq') PRIMARY KEY,
     start_date timestamp,
     end_date timestamp,
     item_id BIGINT,
@@ -50,4 +64,14 @@ CREATE TABLE IF NOT EXISTS booking (
     status VARCHAR(100),
     CONSTRAINT fk_booking_to_item FOREIGN KEY(item_id) REFERENCES item(id),
     CONSTRAINT fk_booking_to_users FOREIGN KEY(booker_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking(booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking(item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_booking_status_start ON booking(status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_item_owner ON item(owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_comment_item ON comment(item_id);
\ No newline at end of file
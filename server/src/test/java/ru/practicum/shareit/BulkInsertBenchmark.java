@@ -0,0 +1,152 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating items and bookings in bulk, one transaction per {@value #ROWS} rows of each.
+ * {@code batchSize} overrides {@code hibernate.jdbc.batch_size}; 1 turns JDBC batching off.
+ * In-memory H2 has no network round trip, so compare the {@code statements} counter (prepared statements
+ * over the whole measurement) with the rows written to see what a networked database would pay per row.
+ * Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final int ROWS = 1_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private User owner;
+    private User booker;
+    private Statistics statistics;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareitServer.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(
+                "spring.jpa.properties.hibernate.show_sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize
+            )
+            .run();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Item> createItems(Statements counters) {
+        long before = statistics.getPrepareStatementCount();
+        List<Item> items = transactionTemplate.execute(status -> itemRepository.saveAll(items()));
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        return items;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Booking> createBookings(Statements counters) {
+        long before = statistics.getPrepareStatementCount();
+        List<Booking> created = transactionTemplate.execute(status -> {
+            List<Item> items = itemRepository.saveAll(items());
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<Booking> bookings = new ArrayList<>(ROWS);
+            for (Item item : items) {
+                bookings.add(Booking.builder()
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .build());
+            }
+            return bookingRepository.saveAll(bookings);
+        });
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        return created;
+    }
+
+    private List<Item> items() {
+        List<Item> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(Item.builder()
+                .name("item " + i)
+                .description("description " + i)
+                .available(true)
+                .owner(owner)
+                .build());
+        }
+        return items;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(BulkInsertBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
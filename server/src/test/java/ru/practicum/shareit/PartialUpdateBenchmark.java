@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDtoMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PATCH overlay of an item and a user patch onto the locked row: field-by-field mappers against
+ * the reflective copy they replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartialUpdateBenchmark {
+    private final Item itemPatch = Item.builder()
+        .name("Дрель")
+        .available(false)
+        .build();
+    private final User userPatch = User.builder()
+        .email("updated@mail.ru")
+        .build();
+    private final Item item = Item.builder()
+        .id(1L)
+        .name("name")
+        .description("description")
+        .available(true)
+        .build();
+    private final User user = User.builder()
+        .id(1L)
+        .name("name")
+        .email("email@mail.ru")
+        .build();
+
+    private static void reflectiveCopy(Object patch, Object entity) {
+        for (Field patchField : patch.getClass().getDeclaredFields()) {
+            patchField.setAccessible(true);
+            try {
+                if (patchField.get(patch) == null) {
+                    continue;
+                }
+                Field entityField = entity.getClass().getDeclaredField(patchField.getName());
+                entityField.setAccessible(true);
+                entityField.set(entity, patchField.get(patch));
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public Item itemMapper() {
+        ItemDtoMapper.partialMapToItem(itemPatch, item);
+        return item;
+    }
+
+    @Benchmark
+    public Item itemReflective() {
+        reflectiveCopy(itemPatch, item);
+        return item;
+    }
+
+    @Benchmark
+    public User userMapper() {
+        UserDtoMapper.partialUpdateUser(userPatch, user);
+        return user;
+    }
+
+    @Benchmark
+    public User userReflective() {
+        reflectiveCopy(userPatch, user);
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(PartialUpdateBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the PostgreSQL branch of the PATCH statements, UPDATE ... RETURNING, against a real PostgreSQL.
+ * Skipped where Docker is not available.
+ */
+@Transactional
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(classes = ShareitServer.class, properties = {
+    "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "shareit.booking.expiry.enabled=false"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PostgresPatchTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14");
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private long version(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        item = itemRepository.save(
+            Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build()
+        );
+        itemRepository.flush();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void updateOwnedReturnsOldRowTest() {
+        Item before = itemRepository.updateOwned(item.getId(), owner.getId(), "Дрель+", null, false).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Дрель", before.getName());
+        assertEquals(true, before.getAvailable());
+        assertEquals(owner.getId(), before.getOwner().getId());
+        Item after = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("Дрель+", after.getName());
+        assertEquals("Простая дрель", after.getDescription());
+        assertEquals(false, after.getAvailable());
+        assertEquals(1, version("item", item.getId()));
+    }
+
+    @Test
+    void updateOwnedByOtherUserChangesNothingTest() {
+        User other = userRepository.save(User.builder().name("other").email("other@mail.ru").build());
+
+        assertTrue(itemRepository.updateOwned(item.getId(), other.getId(), "stolen", null, null).isEmpty());
+        assertTrue(itemRepository.updateOwned(item.getId() + 100, owner.getId(), "missing", null, null).isEmpty());
+
+        assertEquals("Дрель", itemRepository.findById(item.getId()).orElseThrow().getName());
+        assertEquals(0, version("item", item.getId()));
+    }
+
+    @Test
+    void updateFieldsReturnsNewRowTest() {
+        User updated = userRepository.updateFields(owner.getId(), "renamed", null).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("renamed", updated.getName());
+        assertEquals("owner@mail.ru", updated.getEmail());
+        assertEquals(1, version("users", owner.getId()));
+        assertTrue(userRepository.updateFields(owner.getId() + 100, "missing", null).isEmpty());
+    }
+}
@@ -0,0 +1,234 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each read endpoint issues, including lazy loads during serialization,
+ * so that fetch plans don't regress into N+1 selects.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StatementCountTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private Statistics statistics;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long requestId;
+    private Long bookingId;
+
+    private Long insertUser(String name) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", name, name + "@mail.ru");
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE name = ?", Long.class, name);
+    }
+
+    private void insertBooking(LocalDateTime start, Long itemId) {
+        jdbcTemplate.update(
+            "INSERT INTO booking (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, 'APPROVED')",
+            Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), itemId, bookerId
+        );
+    }
+
+    @BeforeAll
+    void setUp() {
+        ownerId = insertUser("owner");
+        bookerId = insertUser("booker");
+        Long requesterId = insertUser("requester");
+        jdbcTemplate.update(
+            "INSERT INTO item_request (description, created, creator_id) VALUES ('drill', ?, ?)",
+            Timestamp.valueOf(LocalDateTime.now()), requesterId
+        );
+        requestId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM item_request", Long.class);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO item (name, description, available, owner_id, request_id) VALUES (?, 'drill', true, ?, ?)",
+                "item" + i, ownerId, requestId
+            );
+        }
+        itemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM item", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : jdbcTemplate.queryForList("SELECT id FROM item", Long.class)) {
+            insertBooking(now.minusDays(3), id);
+            insertBooking(now.plusDays(3), id);
+            jdbcTemplate.update(
+                "INSERT INTO comment (text, item_id, user_id, author_name, created) VALUES ('ok', ?, ?, 'booker', ?)",
+                id, bookerId, Timestamp.valueOf(now)
+            );
+        }
+        bookingId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM booking", Long.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @SneakyThrows
+    private long countStatements(MockHttpServletRequestBuilder request) {
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingByIdTest() {
+        assertEquals(1, countStatements(get("/bookings/{id}", bookingId).header(USER_ID_HEADER, bookerId)));
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_ID_HEADER, bookerId))
+            .andExpect(jsonPath("$.item.owner.id", is(ownerId), Long.class))
+            .andExpect(jsonPath("$.item.request.creator.name", is("requester")));
+    }
+
+    @Test
+    void getUserBookingsTest() {
+        assertEquals(2, countStatements(get("/bookings").header(USER_ID_HEADER, bookerId)));
+        assertEquals(2, countStatements(get("/bookings?from=0&size=2").header(USER_ID_HEADER, bookerId)));
+    }
+
+    @Test
+    void getItemOwnerBookingsTest() {
+        assertEquals(2, countStatements(get("/bookings/owner").header(USER_ID_HEADER, ownerId)));
+        assertEquals(2, countStatements(get("/bookings/owner?from=0&size=2").header(USER_ID_HEADER, ownerId)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemByIdTest() {
+        assertEquals(4, countStatements(get("/items/{id}", itemId).header(USER_ID_HEADER, ownerId)));
+        mvc.perform(get("/items/{id}", itemId).header(USER_ID_HEADER, ownerId))
+            .andExpect(jsonPath("$.comments[0].item.request.creator.name", is("requester")))
+            .andExpect(jsonPath("$.comments[0].user.id", is(bookerId), Long.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemNotModifiedTest() {
+        String etag = mvc.perform(get("/items/{id}", itemId).header(USER_ID_HEADER, bookerId))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+        mvc.perform(get("/items/{id}", itemId)
+                .header(USER_ID_HEADER, bookerId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserItemsTest() {
+        assertEquals(3, countStatements(get("/items").header(USER_ID_HEADER, ownerId)));
+        mvc.perform(get("/items").header(USER_ID_HEADER, ownerId))
+            .andExpect(jsonPath("$[2].lastBooking.bookerId", is(bookerId), Long.class))
+            .andExpect(jsonPath("$[2].nextBooking.bookerId", is(bookerId), Long.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void searchTest() {
+        assertEquals(1, countStatements(get("/items/search?text=drill").header(USER_ID_HEADER, bookerId)));
+        mvc.perform(get("/items/search?text=drill").header(USER_ID_HEADER, bookerId))
+            .andExpect(jsonPath("$.length()", is(3)))
+            .andExpect(jsonPath("$[0].requestId", is(requestId), Long.class));
+    }
+
+    @Test
+    void patchTest() {
+        // the guarded UPDATE, then the request listing the item goes stale with it
+        assertEquals(2, countStatements(patch("/items/{id}", itemId)
+            .header(USER_ID_HEADER, ownerId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"description\": \"drill\"}")));
+        // the UPDATE, then the items embedding the user go stale with it
+        assertEquals(2, countStatements(patch("/users/{id}", bookerId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\": \"booker\"}")));
+    }
+
+    @Test
+    void decideBookingsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO booking (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, 'WAITING')",
+                Timestamp.valueOf(start.plusDays(i)), Timestamp.valueOf(start.plusDays(i).plusHours(1)), itemId, bookerId
+            );
+            ids.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM booking", Long.class));
+        }
+        String decisions = String.format(
+            "[{\"bookingId\": %d, \"approved\": true}, {\"bookingId\": %d, \"approved\": true}, " +
+                "{\"bookingId\": %d, \"approved\": false}, {\"bookingId\": %d, \"approved\": false}]",
+            ids.get(0), ids.get(1), ids.get(2), ids.get(3)
+        );
+
+        // owned bookings, approved overlaps, one UPDATE per target status
+        assertEquals(4, countStatements(patch("/bookings/batch")
+            .header(USER_ID_HEADER, ownerId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(decisions)));
+    }
+
+    @Test
+    void getRequestsTest() {
+        assertEquals(2, countStatements(get("/requests/all").header(USER_ID_HEADER, bookerId)));
+        assertEquals(2, countStatements(get("/requests/all?from=0&size=10").header(USER_ID_HEADER, bookerId)));
+        // request and reader versions for the tag, then the request and its items
+        assertEquals(5, countStatements(get("/requests/{id}", requestId).header(USER_ID_HEADER, bookerId)));
+    }
+
+    @Test
+    void bulkInsertTest() {
+        User owner = User.builder().id(insertUser("bulk")).build();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(Item.builder().name("bulk" + i).description("bulk").available(true).owner(owner).build());
+        }
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+
+        assertEquals(100, statistics.getEntityInsertCount());
+        // two pooled id fetches and one insert statement executed in batches
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks every item of a 10k-item catalogue holding 1M approved bookings against one period,
+ * i.e. the index part of GET /items/available without a text filter.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityIndexBenchmark {
+    private static final int ITEMS = 10_000;
+    private static final int BOOKINGS_PER_ITEM = 100;
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private AvailabilityIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.streamIntervalsByStatus(Status.APPROVED)).thenReturn(Stream.empty());
+        index = new AvailabilityIndex(bookingRepository);
+        index.rebuild();
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            Item item = Item.builder().id(itemId).build();
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = base.plusDays(i * 3L + itemId % 3);
+                index.onApproved(Booking.builder().item(item).start(start).end(start.plusDays(2)).build());
+            }
+        }
+    }
+
+    @Benchmark
+    public int freeItemsInPeriod() {
+        LocalDateTime start = base.plusDays(150);
+        LocalDateTime end = start.plusHours(12);
+        int free = 0;
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            if (index.isFree(itemId, start, end)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(AvailabilityIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
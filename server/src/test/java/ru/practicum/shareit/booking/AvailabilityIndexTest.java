@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AvailabilityIndexTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private AvailabilityIndex index;
+
+    private static BookingInterval interval(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    private void approve(Item item, LocalDateTime start, LocalDateTime end) {
+        index.onApproved(Booking.builder().item(item).start(start).end(end).build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.streamIntervalsByStatus(Status.APPROVED))
+            .thenReturn(Stream.of(
+                interval(1L, base, base.plusDays(2)),
+                interval(1L, base.plusDays(10), base.plusDays(40)),
+                interval(2L, base.plusDays(5), base.plusDays(6))
+            ));
+        index = new AvailabilityIndex(bookingRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void overlappingPeriodIsBusyTest() {
+        assertFalse(index.isFree(1L, base.plusDays(1), base.plusDays(3)));
+        assertFalse(index.isFree(1L, base.plusDays(20), base.plusDays(21)));
+        assertFalse(index.isFree(2L, base.plusDays(4), base.plusDays(7)));
+    }
+
+    @Test
+    void touchingOrDisjointPeriodIsFreeTest() {
+        assertTrue(index.isFree(1L, base.plusDays(2), base.plusDays(10)));
+        assertTrue(index.isFree(1L, base.plusDays(40), base.plusDays(50)));
+        assertTrue(index.isFree(3L, base, base.plusDays(100)));
+    }
+
+    @Test
+    void approvedBookingAndDeletedItemAreAppliedTest() {
+        index.onApproved(Booking.builder()
+            .item(Item.builder().id(3L).build())
+            .start(base)
+            .end(base.plusDays(1))
+            .build());
+        index.onItemDeleted(1L);
+
+        assertFalse(index.isFree(3L, base, base.plusHours(1)));
+        assertTrue(index.isFree(1L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void approvalsInAnyOrderAreIndexedTest() {
+        Item item = Item.builder().id(4L).build();
+        for (int day = 99; day >= 0; day -= 3) {
+            approve(item, base.plusDays(day), base.plusDays(day + 1));
+        }
+        for (int day = 1; day < 100; day += 3) {
+            approve(item, base.plusDays(day), base.plusDays(day + 1));
+        }
+
+        assertFalse(index.isFree(4L, base.plusDays(1).plusHours(1), base.plusDays(1).plusHours(2)));
+        assertFalse(index.isFree(4L, base.plusDays(99), base.plusDays(100)));
+        assertTrue(index.isFree(4L, base.plusDays(2), base.plusDays(3)));
+        assertTrue(index.isFree(4L, base.plusDays(100), base.plusDays(101)));
+    }
+
+    @Test
+    void endedIntervalsArePrunedTest() {
+        LocalDateTime now = LocalDateTime.now();
+        Item item = Item.builder().id(5L).build();
+        approve(item, now.minusDays(3), now.minusDays(2));
+        approve(item, now.minusDays(1), now.plusDays(1));
+        approve(item, now.plusDays(5), now.plusDays(6));
+
+        assertTrue(index.isFree(5L, now.minusDays(3), now.minusDays(2)));
+        assertFalse(index.isFree(5L, now, now.plusHours(1)));
+        assertFalse(index.isFree(5L, now.plusDays(5), now.plusDays(7)));
+        assertTrue(index.isFree(5L, now.plusDays(2), now.plusDays(5)));
+
+        index.prune();
+
+        assertFalse(index.isFree(5L, now, now.plusHours(1)));
+        assertFalse(index.isFree(1L, base, base.plusDays(1)));
+    }
+}
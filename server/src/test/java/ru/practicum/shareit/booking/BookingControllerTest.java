@@ -9,8 +9,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingCursor;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStateException;
@@ -24,11 +26,16 @@ import ru.practicum.shareit.user.model.User;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -200,6 +207,56 @@ public class BookingControllerTest {
                 is(booking.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
     }
 
+    @Test
+    @SneakyThrows
+    void getBookingsByUserWithCursorTest() {
+        when(bookingService.getUserBookingsAfter(any(Long.class), any(State.class), any(BookingCursor.class),
+            any(Integer.class)))
+            .thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings?state=ALL&cursor=&size=1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Cursor", BookingCursor.after(booking).encode()))
+            .andExpect(jsonPath("$.[0].id", is(booking.getId()), Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemOwnerBookingsWithCursorLastPageTest() {
+        when(bookingService.getItemOwnerBookingsAfter(any(Long.class), any(State.class), any(BookingCursor.class),
+            any(Integer.class)))
+            .thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings/owner?state=ALL&size=10&cursor=" + BookingCursor.after(booking).encode())
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Cursor"))
+            .andExpect(jsonPath("$.[0].id", is(booking.getId()), Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsByUserWithCursorWithoutSizeTest() {
+        when(bookingService.getUserBookingsAfter(any(Long.class), any(State.class), any(BookingCursor.class),
+            any(Integer.class)))
+            .thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings?state=ALL&cursor=")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Cursor"))
+            .andExpect(jsonPath("$.[0].id", is(booking.getId()), Long.class));
+        verify(bookingService).getUserBookingsAfter(eq(1L), eq(State.ALL), any(BookingCursor.class), eq(10));
+        verify(bookingService, never()).getUserBookings(any(Long.class), any(State.class));
+    }
+
     @Test
     @SneakyThrows
     void approveBookingTest() {
@@ -238,4 +295,30 @@ public class BookingControllerTest {
             .andExpect(jsonPath("$.end",
                 is(booking.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void approveOrRejectBookingsTest() {
+        Map<Long, Boolean> decisions = new LinkedHashMap<>();
+        decisions.put(1L, true);
+        decisions.put(2L, false);
+        when(bookingService.decideBookings(decisions, 1L))
+            .thenReturn(List.of(
+                BookingDecisionResult.applied(1L, Status.APPROVED),
+                BookingDecisionResult.failed(2L, "Booking 2 is already approved.")
+            ));
+
+        mockMvc.perform(patch("/bookings/batch")
+                .content("[{\"bookingId\": 1, \"approved\": true}, {\"bookingId\": 2, \"approved\": false}]")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1L))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].bookingId", is(1)))
+            .andExpect(jsonPath("$[0].status", is("APPROVED")))
+            .andExpect(jsonPath("$[0].error").doesNotExist())
+            .andExpect(jsonPath("$[1].bookingId", is(2)))
+            .andExpect(jsonPath("$[1].error", is("Booking 2 is already approved.")));
+    }
+}
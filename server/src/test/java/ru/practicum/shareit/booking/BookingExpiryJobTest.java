@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.expiry.BookingExpiryJob;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class BookingExpiryJobTest {
+    private SimpleMeterRegistry meterRegistry;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private BookingExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingService = mock(BookingService.class);
+        bookingRepository = mock(BookingRepository.class);
+        job = new BookingExpiryJob(bookingService, bookingRepository, 2, 3, meterRegistry);
+    }
+
+    @Test
+    void expireWaitingBookingsStopsOnPartialBatchTest() {
+        when(bookingService.expireWaitingBookings(any(), eq(2)))
+            .thenReturn(2)
+            .thenReturn(1);
+        when(bookingRepository.findMinStartByStatusAndStartBefore(eq(Status.WAITING), any()))
+            .thenReturn(Optional.empty());
+
+        job.expireWaitingBookings();
+
+        verify(bookingService, times(2)).expireWaitingBookings(any(), eq(2));
+        assertEquals(3, meterRegistry.get("shareit.booking.expiry.expired").counter().count());
+        assertEquals(2, meterRegistry.get("shareit.booking.expiry.batch").timer().count());
+        assertEquals(0, meterRegistry.get("shareit.booking.expiry.lag").timeGauge().value(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void expireWaitingBookingsBoundsBatchesPerRunTest() {
+        when(bookingService.expireWaitingBookings(any(), eq(2)))
+            .thenReturn(2);
+        when(bookingRepository.findMinStartByStatusAndStartBefore(eq(Status.WAITING), any()))
+            .thenReturn(Optional.of(LocalDateTime.now().minusHours(1)));
+
+        job.expireWaitingBookings();
+
+        verify(bookingService, times(3)).expireWaitingBookings(any(), eq(2));
+        assertEquals(6, meterRegistry.get("shareit.booking.expiry.expired").counter().count());
+        assertTrue(meterRegistry.get("shareit.booking.expiry.lag").timeGauge().value(TimeUnit.MINUTES) >= 60);
+    }
+}
@@ -10,15 +10,24 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingCursor;
+import ru.practicum.shareit.booking.service.BookingWindow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.suggest.ItemBookingCount;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -63,8 +72,8 @@ public class BookingRepositoryTest {
 
     Booking booking = Booking.builder()
         .id(1L)
-        .start(LocalDateTime.now())
-        .end(LocalDateTime.now().plusHours(1))
+        .start(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
+        .end(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusHours(1))
         .item(item2)
         .booker(user2)
         .status(Status.APPROVED)
@@ -201,4 +210,282 @@ public class BookingRepositoryTest {
         assertEquals(booking.getBooker(), received.getBooker());
         assertEquals(booking.getStatus(), received.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void getAllByBookerAndStateWindowWithPaginationTest() {
+        Booking past = bookingRepository.save(Booking.builder()
+            .start(LocalDateTime.now().minusDays(2))
+            .end(LocalDateTime.now().minusDays(1))
+            .item(item2)
+            .booker(user2)
+            .status(Status.APPROVED)
+            .build());
+        Booking future = bookingRepository.save(Booking.builder()
+            .start(LocalDateTime.now().plusDays(1))
+            .end(LocalDateTime.now().plusDays(2))
+            .item(item2)
+            .booker(user2)
+            .status(Status.APPROVED)
+            .build());
+        Pageable pageable = PageRequest.of(0, 1, sort);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Booking> pastPage = bookingRepository.findAllByBookerAndEndBefore(user2, now, pageable);
+        List<Booking> currentPage = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(
+            user2, now, now, pageable
+        );
+        List<Booking> futurePage = bookingRepository.findAllByBookerAndStartAfter(user2, now, pageable);
+
+        assertEquals(List.of(past.getId()), pastPage.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(List.of(booking.getStart()), currentPage.stream().map(Booking::getStart).collect(Collectors.toList()));
+        assertEquals(List.of(future.getId()), futurePage.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void getAllByItemOwnerAndStateWindowWithSortTest() {
+        Booking future = bookingRepository.save(Booking.builder()
+            .start(LocalDateTime.now().plusDays(1))
+            .end(LocalDateTime.now().plusDays(2))
+            .item(item2)
+            .booker(user1)
+            .status(Status.WAITING)
+            .build());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Booking> pastBookings = bookingRepository.findAllByItemOwnerAndEndBefore(user2, now, sort);
+        List<Booking> currentBookings = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(
+            user2, now, now, sort
+        );
+        List<Booking> futureBookings = bookingRepository.findAllByItemOwnerAndStartAfter(user2, now, sort);
+
+        assertEquals(0, pastBookings.size());
+        assertEquals(booking.getStart(), currentBookings.get(0).getStart());
+        assertEquals(future.getId(), futureBookings.get(0).getId());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void getBookerPagesByCursorTest() {
+        Booking older = bookingRepository.save(Booking.builder()
+            .start(booking.getStart().minusDays(1))
+            .end(booking.getEnd().minusDays(1))
+            .item(item2)
+            .booker(user2)
+            .status(Status.APPROVED)
+            .build());
+        BookingWindow window = BookingWindow.of(State.ALL, LocalDateTime.now());
+        BookingCursor cursor = BookingCursor.first();
+
+        List<Booking> firstPage = bookingRepository.findBookerPageAfter(user2, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, 1));
+        cursor = BookingCursor.decode(BookingCursor.after(firstPage.get(0)).encode());
+        List<Booking> secondPage = bookingRepository.findBookerPageAfter(user2, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, 1));
+
+        assertEquals(booking.getStart(), firstPage.get(0).getStart());
+        assertEquals(older.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void getItemOwnerPageByCursorAndStatusTest() {
+        BookingWindow window = BookingWindow.of(State.WAITING, LocalDateTime.now());
+        BookingCursor cursor = BookingCursor.first();
+
+        List<Booking> page = bookingRepository.findItemOwnerPageAfter(user2, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, 10));
+
+        assertEquals(0, page.size());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void getItemOwnerPagesAcrossItemsWithSameStartTest() {
+        Booking sameStart = bookingRepository.save(Booking.builder()
+            .start(booking.getStart())
+            .end(booking.getEnd())
+            .item(item)
+            .booker(user1)
+            .status(Status.APPROVED)
+            .build());
+        BookingWindow window = BookingWindow.of(State.ALL, LocalDateTime.now());
+        BookingCursor cursor = BookingCursor.first();
+
+        List<Booking> firstPage = bookingRepository.findItemOwnerPageAfter(user2, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, 1));
+        cursor = BookingCursor.after(firstPage.get(0));
+        List<Booking> secondPage = bookingRepository.findItemOwnerPageAfter(user2, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, 1));
+        cursor = BookingCursor.after(secondPage.get(0));
+        List<Booking> lastPage = bookingRepository.findItemOwnerPageAfter(user2, window.getStatuses(),
+            window.getStartFrom(), window.getStartTo(), window.getEndFrom(), window.getEndTo(),
+            cursor.getStart(), cursor.getId(), PageRequest.of(0, 1));
+
+        assertEquals(sameStart.getId(), firstPage.get(0).getId());
+        assertEquals(booking.getStart(), secondPage.get(0).getStart());
+        assertTrue(secondPage.get(0).getId() < sameStart.getId());
+        assertEquals(0, lastPage.size());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void existsApprovedOverlapTest() {
+        Long itemId = bookingRepository.findAll().get(0).getItem().getId();
+
+        assertTrue(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            itemId, Status.APPROVED, booking.getEnd(), booking.getStart().plusMinutes(30)
+        ));
+        assertFalse(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            itemId, Status.APPROVED, booking.getEnd().plusHours(2), booking.getEnd()
+        ));
+        assertFalse(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            itemId, Status.WAITING, booking.getEnd(), booking.getStart()
+        ));
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void approvedBookingDoesNotOverlapItselfTest() {
+        Booking saved = bookingRepository.findAll().get(0);
+        Long itemId = saved.getItem().getId();
+
+        assertFalse(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+            itemId, Status.APPROVED, saved.getEnd(), saved.getStart(), saved.getId()
+        ));
+        assertTrue(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+            itemId, Status.APPROVED, saved.getEnd(), saved.getStart(), saved.getId() + 1
+        ));
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void findAllByIdForItemOwnerAndUpdateStatusTest() {
+        Booking saved = bookingRepository.findAll().get(0);
+        Long ownerId = saved.getItem().getOwner().getId();
+        Long strangerId = userRepository.findAll().stream()
+            .map(User::getId)
+            .filter(id -> !id.equals(ownerId))
+            .findFirst()
+            .orElseThrow();
+
+        assertEquals(List.of(saved.getId()),
+            bookingRepository.findAllByIdForItemOwner(List.of(saved.getId(), saved.getId() + 1), ownerId).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()));
+        assertTrue(bookingRepository.findAllByIdForItemOwner(List.of(saved.getId()), strangerId).isEmpty());
+
+        Booking waiting = bookingRepository.save(
+            bookingOf(saved.getItem(), LocalDateTime.now().plusDays(5), Status.WAITING)
+        );
+        Set<Status> decidable = EnumSet.of(Status.WAITING, Status.REJECTED);
+
+        assertEquals(1, bookingRepository.updateStatus(
+            List.of(saved.getId(), waiting.getId()), Status.REJECTED, decidable
+        ));
+        entityManager.clear();
+        assertEquals(Status.APPROVED, bookingRepository.findById(saved.getId()).orElseThrow().getStatus());
+        assertEquals(Status.REJECTED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void updateStatusByStatusAndStartBeforeTest() {
+        Item saved = bookingRepository.findAll().get(0).getItem();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking oldest = bookingOf(saved, now.minusDays(3), Status.WAITING);
+        Booking older = bookingOf(saved, now.minusDays(2), Status.WAITING);
+        Booking old = bookingOf(saved, now.minusDays(1), Status.WAITING);
+        bookingRepository.saveAll(List.of(
+            older,
+            old,
+            oldest,
+            bookingOf(saved, now.minusDays(4), Status.REJECTED),
+            bookingOf(saved, now.plusDays(1), Status.WAITING)
+        ));
+        bookingRepository.flush();
+
+        assertEquals(oldest.getStart(),
+            bookingRepository.findMinStartByStatusAndStartBefore(Status.WAITING, now).orElseThrow());
+        assertEquals(2, bookingRepository.updateStatusByStatusAndStartBefore(Status.WAITING, Status.EXPIRED, now, 2));
+
+        assertEquals(List.of(oldest.getId(), older.getId()),
+            bookingRepository.findAllByBookerAndStatus(user1, Status.EXPIRED, Sort.by("start")).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()));
+        assertEquals(old.getStart(),
+            bookingRepository.findMinStartByStatusAndStartBefore(Status.WAITING, now).orElseThrow());
+        assertTrue(bookingRepository.findMinStartByStatusAndStartBefore(Status.WAITING, now.minusDays(5)).isEmpty());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void findByIdForBookerOrItemOwnerTest() {
+        Booking saved = bookingRepository.findAll().get(0);
+        Long bookerId = saved.getBooker().getId();
+        Long strangerId = userRepository.findAll().stream()
+            .filter(user -> !user.getId().equals(bookerId))
+            .findFirst()
+            .orElseThrow()
+            .getId();
+
+        assertTrue(bookingRepository.findByIdForBookerOrItemOwner(saved.getId(), bookerId).isPresent());
+        assertFalse(bookingRepository.findByIdForBookerOrItemOwner(saved.getId(), strangerId).isPresent());
+        assertFalse(bookingRepository.findByIdForBookerOrItemOwner(saved.getId() + 1, bookerId).isPresent());
+    }
+
+    private Booking bookingOf(Item item, LocalDateTime start, Status status) {
+        return Booking.builder()
+            .start(start.truncatedTo(ChronoUnit.SECONDS))
+            .end(start.plusDays(1).truncatedTo(ChronoUnit.SECONDS))
+            .item(item)
+            .booker(user1)
+            .status(status)
+            .build();
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void findLastAndNextApprovedByItemIdsTest() {
+        Item saved = bookingRepository.findAll().get(0).getItem();
+        LocalDateTime now = LocalDateTime.now();
+        Booking next = bookingOf(saved, now.plusDays(1), Status.APPROVED);
+        bookingRepository.saveAll(List.of(
+            bookingOf(saved, now.minusDays(3), Status.APPROVED),
+            next,
+            bookingOf(saved, now.plusDays(5), Status.APPROVED),
+            bookingOf(saved, now.plusHours(12), Status.WAITING)
+        ));
+
+        List<LocalDateTime> starts = bookingRepository.findLastAndNextApprovedByItemIds(List.of(saved.getId()), now)
+            .stream()
+            .map(Booking::getStart)
+            .sorted()
+            .collect(Collectors.toList());
+
+        assertEquals(List.of(booking.getStart(), next.getStart()), starts);
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void countBookingsByItemTest() {
+        Item saved = bookingRepository.findAll().get(0).getItem();
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.saveAll(List.of(
+            bookingOf(saved, now.plusDays(1), Status.APPROVED),
+            bookingOf(saved, now.plusDays(5), Status.REJECTED)
+        ));
+
+        List<ItemBookingCount> counts = bookingRepository.countBookingsByItem();
+
+        assertEquals(1, counts.size());
+        assertEquals(saved.getId(), counts.get(0).getItemId());
+        assertEquals(3, counts.get(0).getBookings());
+    }
+}
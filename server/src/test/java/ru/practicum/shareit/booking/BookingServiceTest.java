@@ -9,24 +9,34 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareitServer;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.lock.ItemLock;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingCursor;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.exception.WrongUserIdException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -45,6 +55,12 @@ public class BookingServiceTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemLock itemLock;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -68,6 +84,17 @@ public class BookingServiceTest {
         .build();
     private Booking booking;
 
+    private Booking ownedBooking(Long id, LocalDateTime start, Status status) {
+        return Booking.builder()
+            .id(id)
+            .start(start)
+            .end(start.plusHours(1))
+            .status(status)
+            .booker(user2)
+            .item(item1)
+            .build();
+    }
+
     @BeforeEach
     void setUp() {
         booking = Booking.builder()
@@ -91,6 +118,7 @@ public class BookingServiceTest {
 
         Booking result = bookingService.createBooking(booking, 2L);
 
+        verify(itemLock).lock(item1.getId());
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getStart(), result.getStart());
         assertEquals(booking.getEnd(), result.getEnd());
@@ -99,6 +127,20 @@ public class BookingServiceTest {
         assertEquals(item1, result.getItem());
     }
 
+    @Test
+    void createBookingOverlappingApprovedTest() {
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user2));
+        when(itemRepository.findById(anyLong()))
+            .thenReturn(Optional.of(item1));
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            item1.getId(), Status.APPROVED, booking.getEnd(), booking.getStart()
+        )).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.createBooking(booking, 2L));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void createBookingNotFoundItemTest() {
         when(userRepository.findById(anyLong()))
@@ -165,7 +207,7 @@ public class BookingServiceTest {
     void getBookingByBookerTest() {
         when(userRepository.findById(anyLong()))
             .thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findByIdForBookerOrItemOwner(1L, 2L))
             .thenReturn(Optional.of(booking));
 
         Booking result = bookingService.getBookingById(1L, 2L);
@@ -182,7 +224,7 @@ public class BookingServiceTest {
     void getBookingByItemOwnerTest() {
         when(userRepository.findById(anyLong()))
             .thenReturn(Optional.of(user1));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findByIdForBookerOrItemOwner(1L, 1L))
             .thenReturn(Optional.of(booking));
 
         Booking result = bookingService.getBookingById(1L, 1L);
@@ -203,10 +245,11 @@ public class BookingServiceTest {
             .build();
         when(userRepository.findById(anyLong()))
             .thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong()))
-            .thenReturn(Optional.of(item1));
+        when(bookingRepository.findByIdForBookerOrItemOwner(1L, 3L))
+            .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.getBookingById(1L, 3L));
+        verify(bookingRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -292,8 +335,9 @@ public class BookingServiceTest {
         when(userRepository.findById(anyLong()))
             .thenReturn(Optional.of(user1));
         booking.setStart(LocalDateTime.now().minusHours(1));
-        when(bookingRepository.findAllByItemOwner(user1, Sort.by(DESC, "start")))
-            .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(
+            eq(user1), any(LocalDateTime.class), any(LocalDateTime.class), eq(Sort.by(DESC, "start"))
+        )).thenReturn(List.of(booking));
 
         Booking result = bookingService.getItemOwnerBookings(1L, State.CURRENT).get(0);
 
@@ -356,8 +400,9 @@ public class BookingServiceTest {
         when(userRepository.findById(anyLong()))
             .thenReturn(Optional.of(user2));
         Pageable pageable = PageRequest.of(0, 1, Sort.by(DESC, "start"));
-        when(bookingRepository.findAllByBooker(user2, pageable))
-            .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(
+            eq(user2), any(LocalDateTime.class), any(LocalDateTime.class), eq(pageable)
+        )).thenReturn(List.of(booking));
 
         Booking result = bookingService.getUserBookings(1L, State.CURRENT, 0, 1).get(0);
 
@@ -369,6 +414,66 @@ public class BookingServiceTest {
         assertEquals(item1, result.getItem());
     }
 
+    @Test
+    void getBookingsOfBookerWithPaginationByPastStateTest() {
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user2));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(DESC, "start"));
+        when(bookingRepository.findAllByBookerAndEndBefore(eq(user2), any(LocalDateTime.class), eq(pageable)))
+            .thenReturn(List.of(booking));
+
+        List<Booking> result = bookingService.getUserBookings(2L, State.PAST, 0, 1);
+
+        assertEquals(List.of(booking), result);
+        verify(bookingRepository, never()).findAllByBooker(any(User.class), any(Pageable.class));
+    }
+
+    @Test
+    void getBookingsOfItemOwnerWithPaginationByFutureStateTest() {
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user1));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(DESC, "start"));
+        when(bookingRepository.findAllByItemOwnerAndStartAfter(eq(user1), any(LocalDateTime.class), eq(pageable)))
+            .thenReturn(List.of(booking));
+
+        List<Booking> result = bookingService.getItemOwnerBookings(1L, State.FUTURE, 0, 1);
+
+        assertEquals(List.of(booking), result);
+        verify(bookingRepository, never()).findAllByItemOwner(any(User.class), any(Pageable.class));
+    }
+
+    @Test
+    void getBookingsOfBookerByCursorTest() {
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user2));
+        BookingCursor cursor = new BookingCursor(booking.getStart(), 10L);
+        when(bookingRepository.findBookerPageAfter(eq(user2), eq(List.of(Status.WAITING)),
+            any(), any(), any(), any(), eq(booking.getStart()), eq(10L), eq(PageRequest.of(0, 1))))
+            .thenReturn(List.of(booking));
+
+        List<Booking> result = bookingService.getUserBookingsAfter(2L, State.WAITING, cursor, 1);
+
+        assertEquals(List.of(booking), result);
+    }
+
+    @Test
+    void getBookingsOfItemOwnerByCursorTest() {
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user1));
+        when(bookingRepository.findItemOwnerPageAfter(eq(user1), eq(List.of(Status.values())),
+            any(), any(), any(), any(), any(), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 1))))
+            .thenReturn(List.of(booking));
+
+        List<Booking> result = bookingService.getItemOwnerBookingsAfter(1L, State.ALL, BookingCursor.first(), 1);
+
+        assertEquals(List.of(booking), result);
+    }
+
+    @Test
+    void decodeInvalidCursorTest() {
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("not-a-cursor"));
+    }
+
     @Test
     void getBookingsOfItemOwnerWithPaginationTest() {
         when(userRepository.findById(anyLong()))
@@ -393,19 +498,144 @@ public class BookingServiceTest {
             .thenReturn(Optional.of(user1));
         when(bookingRepository.findById(anyLong()))
             .thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any()))
-            .thenReturn(Booking.builder()
-                .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .booker(booking.getBooker())
-                .item(booking.getItem())
-                .status(Status.APPROVED)
-                .build());
+        when(bookingRepository.updateStatus(eq(List.of(booking.getId())), eq(Status.APPROVED), anySet()))
+            .thenReturn(1);
 
         Booking result = bookingService.approveBooking(booking.getId(), user1.getId());
 
         assertEquals(Status.APPROVED, result.getStatus());
+        verify(bookingRepository).updateStatus(
+            List.of(booking.getId()), Status.APPROVED, EnumSet.of(Status.WAITING, Status.REJECTED)
+        );
+        verify(availabilityIndex).onApproved(result);
+    }
+
+    @Test
+    void approveBookingExpiredConcurrentlyTest() {
+        when(bookingRepository.findById(anyLong()))
+            .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(eq(List.of(booking.getId())), eq(Status.APPROVED), anySet()))
+            .thenReturn(0);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approveBooking(1L, 1L));
+        verify(availabilityIndex, never()).onApproved(any());
+    }
+
+    @Test
+    void decideBookingsTest() {
+        Booking overlapping = ownedBooking(2L, booking.getStart().plusMinutes(30), Status.WAITING);
+        Booking rejected = ownedBooking(3L, booking.getStart(), Status.WAITING);
+        Booking approved = ownedBooking(5L, booking.getStart(), Status.APPROVED);
+        Booking expired = ownedBooking(6L, booking.getStart().plusHours(2), Status.EXPIRED);
+        Booking cancelled = ownedBooking(7L, booking.getStart().plusHours(2), Status.CANCELLED);
+        when(bookingRepository.findAllByIdForItemOwner(anyCollection(), eq(1L)))
+            .thenReturn(List.of(booking, overlapping, rejected, approved, expired, cancelled));
+        when(bookingRepository.updateStatus(anyList(), any(), anySet()))
+            .thenReturn(1);
+        Map<Long, Boolean> decisions = new LinkedHashMap<>();
+        decisions.put(1L, true);
+        decisions.put(2L, true);
+        decisions.put(3L, false);
+        decisions.put(4L, true);
+        decisions.put(5L, false);
+        decisions.put(6L, true);
+        decisions.put(7L, false);
+
+        List<BookingDecisionResult> results = bookingService.decideBookings(decisions, 1L);
+
+        assertEquals(List.of(
+            BookingDecisionResult.applied(1L, Status.APPROVED),
+            BookingDecisionResult.failed(2L, String.format(
+                "Item 1 is already booked from %s to %s.", overlapping.getStart(), overlapping.getEnd()
+            )),
+            BookingDecisionResult.applied(3L, Status.REJECTED),
+            BookingDecisionResult.failed(4L, "Booking 4 is not found or user 1 is not owner of its item."),
+            BookingDecisionResult.failed(5L, "Booking 5 is already approved."),
+            BookingDecisionResult.failed(6L, "Booking 6 is already expired."),
+            BookingDecisionResult.failed(7L, "Booking 7 is already cancelled.")
+        ), results);
+        verify(itemLock).lockAll(List.of(1L));
+        verify(bookingRepository).updateStatus(List.of(1L), Status.APPROVED, EnumSet.of(Status.WAITING, Status.REJECTED));
+        verify(bookingRepository).updateStatus(List.of(3L), Status.REJECTED, EnumSet.of(Status.WAITING, Status.REJECTED));
+        verify(availabilityIndex).onApproved(booking);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void decideBookingsCancelledConcurrentlyTest() {
+        Booking other = ownedBooking(2L, booking.getStart().plusHours(2), Status.WAITING);
+        when(bookingRepository.findAllByIdForItemOwner(anyCollection(), eq(1L)))
+            .thenReturn(List.of(booking, other));
+        when(bookingRepository.updateStatus(anyList(), eq(Status.REJECTED), anySet()))
+            .thenReturn(1);
+        Map<Long, Boolean> decisions = new LinkedHashMap<>();
+        decisions.put(1L, false);
+        decisions.put(2L, false);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.decideBookings(decisions, 1L));
+    }
+
+    @Test
+    void decideBookingsDoesNotOverlapItselfTest() {
+        when(bookingRepository.findAllByIdForItemOwner(anyCollection(), eq(1L)))
+            .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(
+            anyCollection(), eq(Status.APPROVED), any(), any()
+        )).thenReturn(List.of(ownedBooking(1L, booking.getStart(), Status.APPROVED)));
+        when(bookingRepository.updateStatus(anyList(), any(), anySet()))
+            .thenReturn(1);
+
+        assertEquals(
+            List.of(BookingDecisionResult.applied(1L, Status.APPROVED)),
+            bookingService.decideBookings(Map.of(1L, true), 1L)
+        );
+    }
+
+    @Test
+    void expireWaitingBookingsTest() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.updateStatusByStatusAndStartBefore(Status.WAITING, Status.EXPIRED, now, 2))
+            .thenReturn(2);
+
+        assertEquals(2, bookingService.expireWaitingBookings(now, 2));
+    }
+
+    @Test
+    void approveBookingOverlappingApprovedTest() {
+        when(bookingRepository.findById(anyLong()))
+            .thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+            item1.getId(), Status.APPROVED, booking.getEnd(), booking.getStart(), 1L
+        )).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approveBooking(1L, 1L));
+        verify(bookingRepository, never()).updateStatus(anyList(), any(), anySet());
+    }
+
+    @Test
+    void approveBookingApprovedConcurrentlyIsNotOwnOverlapTest() {
+        when(bookingRepository.findById(anyLong()))
+            .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(eq(List.of(1L)), eq(Status.APPROVED), anySet()))
+            .thenReturn(0);
+
+        BookingConflictException e = assertThrows(
+            BookingConflictException.class, () -> bookingService.approveBooking(1L, 1L)
+        );
+        assertEquals("Bookings [1] were decided, cancelled or expired concurrently.", e.getMessage());
+        verify(bookingRepository).existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+            item1.getId(), Status.APPROVED, booking.getEnd(), booking.getStart(), 1L
+        );
+    }
+
+    @Test
+    void approveBookingConstraintViolationTest() {
+        when(bookingRepository.findById(anyLong()))
+            .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(anyList(), any(), anySet()))
+            .thenThrow(new DataIntegrityViolationException("booking_approved_no_overlap"));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approveBooking(1L, 1L));
     }
 
     @Test
@@ -419,6 +649,20 @@ public class BookingServiceTest {
         assertThrows(ValidationException.class, () -> bookingService.approveBooking(1L, 1L));
     }
 
+    @Test
+    void approveBookingExpiredTest() {
+        booking.setStatus(Status.EXPIRED);
+        when(bookingRepository.findById(anyLong()))
+            .thenReturn(Optional.of(booking));
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user1));
+
+        ValidationException e = assertThrows(ValidationException.class, () -> bookingService.approveBooking(1L, 1L));
+        assertEquals("Booking 1 is already expired.", e.getMessage());
+        verify(itemLock, never()).lock(anyLong());
+        verify(bookingRepository, never()).updateStatus(anyList(), any(), anySet());
+    }
+
     @Test
     void approveBookingNotOwnerTest() {
         when(bookingRepository.findById(anyLong()))
@@ -437,9 +681,8 @@ public class BookingServiceTest {
             .thenReturn(Optional.of(user1));
         when(bookingRepository.findById(anyLong()))
             .thenReturn(Optional.of(booking));
-        booking.setStatus(Status.REJECTED);
-        when(bookingRepository.save(any()))
-            .thenReturn(booking);
+        when(bookingRepository.updateStatus(eq(List.of(booking.getId())), eq(Status.REJECTED), anySet()))
+            .thenReturn(1);
 
         Booking result = bookingService.rejectBooking(booking.getId(), user1.getId());
 
@@ -457,6 +700,18 @@ public class BookingServiceTest {
         assertThrows(ValidationException.class, () -> bookingService.rejectBooking(1L, 1L));
     }
 
+    @Test
+    void rejectBookingCancelledTest() {
+        booking.setStatus(Status.CANCELLED);
+        when(bookingRepository.findById(anyLong()))
+            .thenReturn(Optional.of(booking));
+        when(userRepository.findById(anyLong()))
+            .thenReturn(Optional.of(user1));
+
+        assertThrows(ValidationException.class, () -> bookingService.rejectBooking(1L, 1L));
+        verify(bookingRepository, never()).updateStatus(anyList(), any(), anySet());
+    }
+
     @Test
     void rejectBookingNotOwnerTest() {
         when(bookingRepository.findById(anyLong()))
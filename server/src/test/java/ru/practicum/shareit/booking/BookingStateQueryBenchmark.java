@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareitServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares state filtering in SQL with the former "load by booker, filter in memory" approach
+ * for a booker with 100k bookings, 1% of which are in the future.
+ * Run with {@code main} from the test classpath.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingStateQueryBenchmark {
+    private static final int BOOKINGS = 100_000;
+    private static final int PAGE_SIZE = 20;
+
+    private final Sort byStartDesc = Sort.by(Sort.Direction.DESC, "start");
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private User booker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareitServer.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties("spring.jpa.properties.hibernate.show_sql=false")
+            .run();
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingService = context.getBean(BookingService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        jdbcTemplate.update(
+            "INSERT INTO item (name, description, available, owner_id) VALUES ('item', 'description', true, ?)",
+            owner.getId()
+        );
+        Long itemId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM item", Long.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = i % 100 == 0 ? now.plusDays(i + 1) : now.minusDays(i + 2);
+            rows.add(new Object[]{
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), itemId, booker.getId(), "APPROVED"
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO booking (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)",
+            rows
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void futurePageFilteredInMemory(Blackhole blackhole) {
+        LocalDateTime now = LocalDateTime.now();
+        blackhole.consume(bookingRepository.findAllByBooker(booker, PageRequest.of(0, PAGE_SIZE, byStartDesc))
+            .stream()
+            .filter(booking -> booking.getStart().isAfter(now))
+            .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void futurePageFilteredInDatabase(Blackhole blackhole) {
+        blackhole.consume(bookingService.getUserBookings(booker.getId(), State.FUTURE, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public void futureUnpagedFilteredInMemory(Blackhole blackhole) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = bookingRepository.findAllByBooker(booker, byStartDesc).stream()
+            .filter(booking -> booking.getStart().isAfter(now))
+            .collect(Collectors.toList());
+        blackhole.consume(bookings);
+    }
+
+    @Benchmark
+    public void futureUnpagedFilteredInDatabase(Blackhole blackhole) {
+        blackhole.consume(bookingService.getUserBookings(booker.getId(), State.FUTURE));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(BookingStateQueryBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
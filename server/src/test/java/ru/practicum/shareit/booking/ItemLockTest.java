@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.lock.StripedItemLock;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemLockTest {
+    private SimpleMeterRegistry meterRegistry;
+    private StripedItemLock itemLock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemLock = new StripedItemLock(64, 100, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private CompletableFuture<Void> lockInOtherTransaction(Long itemId) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                itemLock.lock(itemId);
+            } finally {
+                completeTransaction();
+            }
+        });
+    }
+
+    @Test
+    void sameItemWaitsAndTimesOutTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        itemLock.lock(1L);
+
+        CompletableFuture<Void> other = lockInOtherTransaction(1L);
+
+        Exception e = assertThrows(Exception.class, other::join);
+        assertTrue(e.getCause() instanceof BookingConflictException);
+        assertEquals(1.0, meterRegistry.counter("shareit.booking.lock.timeouts", "mode", "local").count());
+        assertEquals(1.0, meterRegistry.counter("shareit.booking.lock.contended", "mode", "local").count());
+    }
+
+    @Test
+    void otherItemIsNotBlockedTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        itemLock.lock(1L);
+
+        assertDoesNotThrow(() -> lockInOtherTransaction(2L).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lockIsReleasedAfterTransactionCompletionTest() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            itemLock.lock(1L);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completeTransaction();
+        });
+        locked.await();
+        release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertDoesNotThrow(() -> itemLock.lock(1L));
+    }
+
+    @Test
+    void lockAllTakesSharedStripeOnceTest() {
+        itemLock = new StripedItemLock(1, 100, meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemLock.lockAll(List.of(3L, 1L, 2L, 1L));
+
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    void lockAllInOppositeOrdersDoesNotDeadlockTest() throws Exception {
+        itemLock = new StripedItemLock(64, 2000, meterRegistry);
+        List<Long> ascending = List.of(1L, 2L, 3L, 65L, 130L);
+        List<Long> descending = List.of(130L, 65L, 3L, 2L, 1L);
+        CountDownLatch start = new CountDownLatch(1);
+        Runnable[] tasks = new Runnable[2];
+        for (int i = 0; i < tasks.length; i++) {
+            List<Long> itemIds = i == 0 ? ascending : descending;
+            tasks[i] = () -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int round = 0; round < 200; round++) {
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        itemLock.lockAll(itemIds);
+                    } finally {
+                        completeTransaction();
+                    }
+                }
+            };
+        }
+        CompletableFuture<Void> first = CompletableFuture.runAsync(tasks[0]);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(tasks[1]);
+        start.countDown();
+
+        assertDoesNotThrow(() -> CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.counter("shareit.booking.lock.timeouts", "mode", "local").count());
+    }
+
+    @Test
+    void lockOutsideTransactionTest() {
+        assertThrows(IllegalStateException.class, () -> itemLock.lock(1L));
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -51,6 +53,7 @@ public class CommentRepositoryTest {
     }
 
     @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
     void getAllByItem() {
         Comment received = commentRepository.findAllByItem(item).get(0);
 
@@ -60,4 +63,14 @@ public class CommentRepositoryTest {
         assertEquals(comment.getAuthorName(), received.getAuthorName());
         assertEquals(comment.getUser(), received.getUser());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void getAllByItemIn() {
+        List<Comment> received = commentRepository.findAllByItemIn(List.of(item));
+
+        assertEquals(1, received.size());
+        assertEquals(comment.getText(), received.get(0).getText());
+        assertEquals(item.getId(), received.get(0).getItem().getId());
+    }
+}
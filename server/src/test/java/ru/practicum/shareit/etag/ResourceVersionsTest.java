@@ -0,0 +1,109 @@
+package ru.practicum.shareit.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareitServer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(classes = ShareitServer.class)
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ResourceVersionsTest {
+    private final ResourceVersions versions;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestRepository itemRequestRepository;
+    private User owner;
+    private User requester;
+    private ItemRequest request;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(User.builder().name("owner").email("owner@mail.ru").build());
+        requester = userService.createUser(User.builder().name("requester").email("requester@mail.ru").build());
+        request = itemRequestRepository.save(ItemRequest.builder().description("drill").creator(requester).build());
+        item = itemService.createItem(
+            Item.builder().name("drill").description("drill").available(true).request(request).build(),
+            owner.getId()
+        );
+    }
+
+    @Test
+    void etagIsStableUntilChangedTest() {
+        String etag = versions.etag(Resource.ITEM, item.getId()).orElseThrow();
+
+        assertEquals(etag, versions.etag(Resource.ITEM, item.getId()).orElseThrow());
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+
+        itemService.updateItem(item.getId(), Item.builder().name("hammer").build(), owner.getId());
+
+        assertNotEquals(etag, versions.etag(Resource.ITEM, item.getId()).orElseThrow());
+    }
+
+    @Test
+    void emptyPatchKeepsEtagTest() {
+        String etag = versions.etag(Resource.ITEM, item.getId()).orElseThrow();
+
+        itemService.updateItem(item.getId(), Item.builder().build(), owner.getId());
+
+        assertEquals(etag, versions.etag(Resource.ITEM, item.getId()).orElseThrow());
+    }
+
+    @Test
+    void itemChangeStalesRequestTest() {
+        String etag = versions.etag(Resource.REQUEST, request.getId(), requester.getId()).orElseThrow();
+
+        itemService.updateItem(item.getId(), Item.builder().available(false).build(), owner.getId());
+
+        assertNotEquals(etag, versions.etag(Resource.REQUEST, request.getId(), requester.getId()).orElseThrow());
+    }
+
+    @Test
+    void userChangeStalesUserAndEmbeddingItemsTest() {
+        String user = versions.etag(Resource.USER, owner.getId()).orElseThrow();
+        String ownedItem = versions.etag(Resource.ITEM, item.getId()).orElseThrow();
+        String requesterView = versions.etag(Resource.REQUEST, request.getId(), requester.getId()).orElseThrow();
+
+        userService.updateUser(owner.getId(), User.builder().name("renamed").build());
+
+        assertNotEquals(user, versions.etag(Resource.USER, owner.getId()).orElseThrow());
+        assertNotEquals(ownedItem, versions.etag(Resource.ITEM, item.getId()).orElseThrow());
+        assertEquals(requesterView, versions.etag(Resource.REQUEST, request.getId(), requester.getId()).orElseThrow());
+    }
+
+    @Test
+    void missingResourceHasNoEtagTest() {
+        assertEquals(Optional.empty(), versions.etag(Resource.ITEM, item.getId() + 100));
+        assertEquals(Optional.empty(), versions.etag(Resource.REQUEST, request.getId(), requester.getId() + 100));
+    }
+
+    @Test
+    void matchesTest() {
+        String etag = versions.etag(Resource.USER, owner.getId()).orElseThrow();
+
+        assertTrue(ResourceVersions.matches(etag, etag));
+        assertTrue(ResourceVersions.matches("\"other\", W/" + etag, etag));
+        assertFalse(ResourceVersions.matches(null, etag));
+        assertFalse(ResourceVersions.matches("*", etag));
+        assertFalse(ResourceVersions.matches("\"other\"", etag));
+    }
+}
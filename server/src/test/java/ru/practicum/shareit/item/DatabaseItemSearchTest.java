@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearch;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DatabaseItemSearchTest {
+    private ItemRepository itemRepository;
+
+    private static Item item(Long id, String name, String description) {
+        return Item.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .available(true)
+            .build();
+    }
+
+    @SneakyThrows
+    private DatabaseItemSearch searchOn(String product) {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(product);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return new DatabaseItemSearch(itemRepository, dataSource);
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+            .map(Item::getId)
+            .collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+    }
+
+    @Test
+    void postgresSearchUsesPrefixTsQueryTest() {
+        Pageable page = PageRequest.of(0, 10);
+        when(itemRepository.searchByTsQuery("дрель:* & ударная:*", page))
+            .thenReturn(List.of(item(1L, "Дрель ударная", "")));
+
+        assertEquals(List.of(1L), ids(searchOn("PostgreSQL").search("Дрель, ударная!", page)));
+        verify(itemRepository, never()).searchAvailableByText(anyString(), any());
+    }
+
+    @Test
+    void postgresFuzzySearchUsesWordSimilarityTest() {
+        when(itemRepository.searchBySimilarity("дрль", Pageable.unpaged()))
+            .thenReturn(List.of(item(1L, "Дрель", "")));
+
+        assertEquals(List.of(1L), ids(searchOn("PostgreSQL").searchFuzzy("Дрль", Pageable.unpaged())));
+        InOrder inOrder = inOrder(itemRepository);
+        inOrder.verify(itemRepository).setWordSimilarityThreshold(0.3);
+        inOrder.verify(itemRepository).searchBySimilarity("дрль", Pageable.unpaged());
+    }
+
+    @Test
+    void fuzzySearchFallbackRanksBySimilarityTest() {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(0L), any()))
+            .thenReturn(List.of(
+                item(1L, "Отвертка", "Крестовая"),
+                item(2L, "Дрель", "Простая"),
+                item(3L, "Набор", "Отвертки и биты")
+            ));
+        DatabaseItemSearch search = searchOn("H2");
+
+        assertEquals(List.of(1L, 3L), ids(search.searchFuzzy("отвертко", Pageable.unpaged())));
+        assertEquals(List.of(3L), ids(search.searchFuzzy("отвертко", PageRequest.of(1, 1))));
+        verify(itemRepository, never()).searchBySimilarity(anyString(), any());
+    }
+
+    @Test
+    void fuzzySearchFallbackReadsCatalogueInChunksTest() {
+        List<Item> firstChunk = LongStream.rangeClosed(1, 500)
+            .mapToObj(id -> item(id, "Дрель " + id, ""))
+            .collect(Collectors.toList());
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(0L), any()))
+            .thenReturn(firstChunk);
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(500L), any()))
+            .thenReturn(List.of(item(501L, "Отвертка", ""), item(502L, "Дрель", "")));
+
+        assertEquals(List.of(3L, 4L), ids(searchOn("H2").searchFuzzy("дрель", PageRequest.of(1, 2))));
+        verify(itemRepository).findAllByAvailableTrueAndIdGreaterThan(eq(500L), any());
+    }
+}
@@ -7,13 +7,17 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.dto.IncomingCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.etag.Resource;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.BookingNoAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.bulk.ItemImporter;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -32,6 +36,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -44,7 +49,11 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
     @MockBean
+    private ResourceVersions resourceVersions;
+    @MockBean
     private ItemRequestRepository itemRequestRepository;
+    @MockBean
+    private ItemImporter itemImporter;
     private IncomingItemDto incomingItemDto;
     private Item item;
 
@@ -112,9 +121,7 @@ public class ItemControllerTest {
             .build();
         item = ItemDtoMapper.toItem(incomingItemDto);
 
-        when(itemService.updateItem(any(Item.class), anyLong()))
-            .thenReturn(item);
-        when(itemService.getItem(anyLong()))
+        when(itemService.updateItem(anyLong(), any(Item.class), anyLong()))
             .thenReturn(item);
 
         mvc.perform(patch("/items/1")
@@ -140,9 +147,7 @@ public class ItemControllerTest {
             .build();
         item = ItemDtoMapper.toItem(incomingItemDto);
 
-        when(itemService.updateItem(any(Item.class), anyLong()))
-            .thenReturn(item);
-        when(itemService.getItem(anyLong()))
+        when(itemService.updateItem(anyLong(), any(Item.class), anyLong()))
             .thenAnswer(invocationOnMock -> {
                 throw new NotFoundException("");
             });
@@ -166,9 +171,7 @@ public class ItemControllerTest {
             .build();
         item = ItemDtoMapper.toItem(incomingItemDto);
 
-        when(itemService.updateItem(any(Item.class), anyLong()))
-            .thenThrow(BookingNoAccessException.class);
-        when(itemService.getItem(anyLong()))
+        when(itemService.updateItem(anyLong(), any(Item.class), anyLong()))
             .thenAnswer(invocationOnMock -> {
                 throw new BookingNoAccessException("");
             });
@@ -192,9 +195,7 @@ public class ItemControllerTest {
             .build();
         item = ItemDtoMapper.toItem(incomingItemDto);
 
-        when(itemService.updateItem(any(Item.class), anyLong()))
-            .thenThrow(BookingNoAccessException.class);
-        when(itemService.getItem(anyLong()))
+        when(itemService.updateItem(anyLong(), any(Item.class), anyLong()))
             .thenAnswer(invocationOnMock -> {
                 throw new ValidationException("");
             });
@@ -232,6 +233,58 @@ public class ItemControllerTest {
             .andExpect(jsonPath("$.available", is(item.getAvailable())));
     }
 
+    @SneakyThrows
+    @Test
+    void getItemNotModifiedTest() {
+        item = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("desc")
+            .available(true)
+            .owner(User.builder().id(2L).build())
+            .build();
+        when(itemService.getItemById(anyLong(), anyLong()))
+            .thenReturn(ItemDtoMapper.toOutgoingDto(item));
+        when(resourceVersions.etag(Resource.ITEM, 1L))
+            .thenReturn(Optional.of("\"i1-0\""));
+
+        String etag = mvc.perform(get("/items/1")
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1")
+                .header("X-Sharer-User-Id", 3)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(itemService, Mockito.times(1))
+            .getItemById(anyLong(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnItemIsNotTaggedTest() {
+        item = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("desc")
+            .available(true)
+            .owner(User.builder().id(1L).build())
+            .build();
+        when(itemService.getItemById(anyLong(), anyLong()))
+            .thenReturn(ItemDtoMapper.toOutgoingDto(item));
+        when(resourceVersions.etag(Resource.ITEM, 1L))
+            .thenReturn(Optional.of("\"i1-0\""));
+
+        mvc.perform(get("/items/1")
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     @SneakyThrows
     void deleteItemTest() {
@@ -270,6 +323,21 @@ public class ItemControllerTest {
             .andExpect(jsonPath("$.[0].available", is(item.getAvailable())));
     }
 
+    @Test
+    @SneakyThrows
+    void suggest() {
+        when(itemService.suggest("dr", 5))
+            .thenReturn(List.of("Drill", "Driver"));
+
+        mvc.perform(get("/items/suggest?prefix=dr&size=5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()", is(2)))
+            .andExpect(jsonPath("$[1]", is("Driver")));
+    }
+
     @Test
     @SneakyThrows
     void searchItems() {
@@ -294,6 +362,73 @@ public class ItemControllerTest {
             .andExpect(jsonPath("$.[0].available", is(item.getAvailable())));
     }
 
+    @Test
+    @SneakyThrows
+    void searchItemsWithPagination() {
+        item = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("desc")
+            .available(true)
+            .build();
+        when(itemService.search("name", 10, 5))
+            .thenReturn(List.of(item));
+
+        mvc.perform(get("/items/search?text=name&from=10&size=5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id", is(item.getId()), Long.class));
+        verify(itemService).search("name", 10, 5);
+    }
+
+    @Test
+    @SneakyThrows
+    void searchItemsFuzzy() {
+        item = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("desc")
+            .available(true)
+            .build();
+        when(itemService.searchFuzzy("nmae", null, null))
+            .thenReturn(List.of(item));
+
+        mvc.perform(get("/items/search?text=nmae&fuzzy=true")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id", is(item.getId()), Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void findAvailableItems() {
+        item = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("desc")
+            .available(true)
+            .build();
+        when(itemService.findAvailable(any(LocalDateTime.class), any(LocalDateTime.class), anyString(),
+            any(Integer.class), any(Integer.class)))
+            .thenReturn(List.of(item));
+
+        mvc.perform(get("/items/available?start=2030-01-01T10:00:00&end=2030-01-02T10:00:00&text=name")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id", is(item.getId()), Long.class));
+        verify(itemService).findAvailable(
+            LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 2, 10, 0), "name", 0, 10
+        );
+    }
+
     @Test
     @SneakyThrows
     void createComment() {
@@ -134,4 +134,28 @@ public class ItemDtoMapperTest {
 
         assertIterableEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void partialMapToItemTest() {
+        Item item = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("description")
+            .available(true)
+            .build();
+        Item patch = Item.builder()
+            .id(2L)
+            .description("updated")
+            .build();
+        Item expected = Item.builder()
+            .id(1L)
+            .name("name")
+            .description("updated")
+            .available(true)
+            .build();
+
+        ItemDtoMapper.partialMapToItem(patch, item);
+
+        assertEquals(expected, item);
+    }
+}
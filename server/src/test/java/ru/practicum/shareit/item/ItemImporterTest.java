@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.bulk.ItemImporter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ItemImporterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new ParameterNamesModule());
+    private ItemService itemService;
+    private UserService userService;
+    private ItemImporter importer;
+    private final List<List<String>> batches = new ArrayList<>();
+
+    private static InputStream lines(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void setUp() {
+        itemService = mock(ItemService.class);
+        userService = mock(UserService.class);
+        ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+        when(itemRequestRepository.findAllById(anyList()))
+            .thenReturn(List.of(ItemRequest.builder().id(1L).build()));
+        AtomicLong ids = new AtomicLong();
+        when(itemService.createItems(anyList(), eq(1L))).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            batches.add(items.stream().map(Item::getName).collect(Collectors.toList()));
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            return items;
+        });
+        importer = new ItemImporter(itemService, userService, itemRequestRepository, objectMapper, 2);
+    }
+
+    @Test
+    void importItemsTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        importer.importItems(1L, lines(
+            "{\"name\": \"drill\", \"description\": \"drill\", \"available\": true}",
+            "{\"name\": ",
+            "",
+            "{\"name\": \"saw\", \"description\": \"saw\", \"available\": true, \"requestId\": 1}",
+            "{\"name\": \"hammer\", \"description\": \"hammer\", \"available\": true, \"requestId\": 2}",
+            "{\"name\": \"axe\", \"description\": \"axe\", \"available\": false}"
+        ), response);
+
+        String[] results = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        assertEquals(5, results.length);
+        assertEquals("{\"line\":1,\"status\":201,\"id\":1}", results[0]);
+        assertTrue(results[1].startsWith("{\"line\":2,\"status\":400,\"error\":\"Malformed item"));
+        assertEquals("{\"line\":4,\"status\":201,\"id\":2}", results[2]);
+        assertEquals("{\"line\":5,\"status\":404,\"error\":\"Item request 2 not found.\"}", results[3]);
+        assertEquals("{\"line\":6,\"status\":201,\"id\":3}", results[4]);
+        assertEquals(List.of(List.of("drill"), List.of("saw"), List.of("axe")), batches);
+    }
+
+    @Test
+    void importItemsUnknownOwnerTest() {
+        when(userService.getUserById(1L))
+            .thenThrow(new NotFoundException("User 1 is not found."));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(NotFoundException.class, () -> importer.importItems(1L, lines("{}"), response));
+        assertNull(response.getContentType());
+        verify(itemService, never()).createItems(anyList(), eq(1L));
+    }
+}
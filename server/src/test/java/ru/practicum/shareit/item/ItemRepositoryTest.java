@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
@@ -18,6 +19,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class ItemRepositoryTest {
@@ -126,4 +128,43 @@ public class ItemRepositoryTest {
         assertEquals(item.getDescription(), received.getDescription());
         assertEquals(item.getAvailable(), received.getAvailable());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void searchAvailableByTextTest() {
+        User owner = userRepository.findAll().get(0);
+        itemRepository.save(Item.builder().name("Дрель").description("Простая").available(true).owner(owner).build());
+        itemRepository.save(Item.builder().name("Отвертка").description("Для дрели").available(true).owner(owner).build());
+        itemRepository.save(Item.builder().name("Дрель").description("Сломана").available(false).owner(owner).build());
+
+        List<Item> firstPage = itemRepository.searchAvailableByText("дРел", PageRequest.of(0, 1));
+        List<Item> secondPage = itemRepository.searchAvailableByText("дРел", PageRequest.of(1, 1));
+
+        assertEquals(1, firstPage.size());
+        assertEquals("Дрель", firstPage.get(0).getName());
+        assertEquals(1, secondPage.size());
+        assertEquals("Отвертка", secondPage.get(0).getName());
+    }
+
+    @Test
+    @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+    void updateOwnedTest() {
+        Item stored = itemRepository.findAll().get(0);
+        Long ownerId = stored.getOwner().getId();
+
+        Item before = itemRepository.updateOwned(stored.getId(), ownerId, "updated", null, false).orElseThrow();
+
+        assertEquals("itemname", before.getName());
+        assertEquals(true, before.getAvailable());
+        assertEquals(ownerId, before.getOwner().getId());
+        assertEquals(stored.getRequest().getId(), before.getRequest().getId());
+        Item after = itemRepository.findById(stored.getId()).orElseThrow();
+        assertEquals("updated", after.getName());
+        assertEquals("description", after.getDescription());
+        assertEquals(false, after.getAvailable());
+        assertTrue(itemRepository.updateOwned(stored.getId(), ownerId + 100, "stolen", null, null).isEmpty());
+        assertTrue(itemRepository.updateOwned(stored.getId() + 100, ownerId, "missing", null, null).isEmpty());
+        assertEquals("updated", itemRepository.updateOwned(stored.getId(), ownerId, null, null, null)
+            .orElseThrow().getName());
+    }
+}
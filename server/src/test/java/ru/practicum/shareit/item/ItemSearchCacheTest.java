@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSearchCacheTest {
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    private static final long EXPIRE_AFTER_WRITE_MILLIS = 30_000;
+
+    private MeterRegistry meterRegistry;
+    private AtomicLong nanos;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .available(available)
+            .build();
+    }
+
+    private Supplier<List<Item>> loader(Item... items) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(items);
+        };
+    }
+
+    private void search(String text, Pageable page) {
+        cache.get(text, page, loader());
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        cache = new ItemSearchCache(100, EXPIRE_AFTER_WRITE_MILLIS, meterRegistry, nanos::get);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void repeatedQueryIsServedFromCacheTest() {
+        Item drill = item(1L, "Дрель", "Простая", true);
+
+        assertEquals(List.of(drill), cache.get("Дрель", FIRST_PAGE, loader(drill)));
+        assertEquals(List.of(drill), cache.get("  дрель ", FIRST_PAGE, loader(drill)));
+        search("дрель", PageRequest.of(1, 10));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void pageExpiresAfterWriteTest() {
+        Item drill = item(1L, "Дрель", "Простая", true);
+        cache.get("дрель", FIRST_PAGE, loader(drill));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(EXPIRE_AFTER_WRITE_MILLIS - 1));
+        search("дрель", FIRST_PAGE);
+        assertEquals(1, loads.get());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        search("дрель", FIRST_PAGE);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void unpagedResultIsNotCachedTest() {
+        search("дрель", Pageable.unpaged());
+        search("дрель", Pageable.unpaged());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void writeInvalidatesOnlyQueriesItMatchesTest() {
+        search("дрель", FIRST_PAGE);
+        search("дрель", PageRequest.of(1, 10));
+        search("отвертка", FIRST_PAGE);
+
+        cache.onSaved(null, item(2L, "Дрель ударная", "Мощная", true));
+        search("дрель", FIRST_PAGE);
+        search("дрель", PageRequest.of(1, 10));
+        search("отвертка", FIRST_PAGE);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void writeInvalidatesQueriesMatchingPartOfAWordTest() {
+        search("дрел удар", FIRST_PAGE);
+        search("дрел пила", FIRST_PAGE);
+
+        cache.onCreated(List.of(item(2L, "Дрель", "Ударная", true)));
+        search("дрел удар", FIRST_PAGE);
+        search("дрел пила", FIRST_PAGE);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void writeInvalidatesQueriesItUsedToMatchTest() {
+        search("дрель", FIRST_PAGE);
+        search("перфоратор", FIRST_PAGE);
+
+        cache.onSaved(item(1L, "Дрель", "Простая", true), item(1L, "Перфоратор", "Простой", true));
+        search("дрель", FIRST_PAGE);
+        search("перфоратор", FIRST_PAGE);
+
+        assertEquals(4, loads.get());
+
+        cache.onSaved(item(1L, "Перфоратор", "Простой", true), item(1L, "Перфоратор", "Простой", false));
+        cache.onDeleted(item(3L, "Отвертка", "Крестовая", true));
+        search("дрель", FIRST_PAGE);
+        search("перфоратор", FIRST_PAGE);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void loadOverlappingWriteIsNotCachedTest() {
+        cache.get("дрель", FIRST_PAGE, () -> {
+            loads.incrementAndGet();
+            cache.onDeleted(item(1L, "Дрель", "Простая", true));
+            return List.of();
+        });
+        search("дрель", FIRST_PAGE);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void cacheIsBoundedByItemsTest() {
+        Item drill = item(1L, "Дрель", "Простая", true);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("query" + i, FIRST_PAGE, loader(drill));
+        }
+        Gauge size = meterRegistry.get("cache.size").gauge();
+        for (int attempt = 0; attempt < 100 && size.value() > 50; attempt++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(50, size.value());
+        assertTrue(meterRegistry.get("cache.evictions").functionCounter().count() >= 950);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Plain and fuzzy single- and two-term queries against catalogues of random words from a 20k-word vocabulary.
+ * Fuzzy queries drop one letter of each word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ItemSearchIndexBenchmark {
+    private static final int WORDS = 20_000;
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    private ItemSearchIndex index;
+    private String[] vocabulary;
+
+    private static String randomWord(Random random) {
+        char[] letters = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    private String word(Random random) {
+        return vocabulary[random.nextInt(WORDS)];
+    }
+
+    private static String misspelt(String word) {
+        return word.substring(0, 2) + word.substring(3);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            vocabulary[i] = randomWord(random);
+        }
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of());
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+        for (long id = 1; id <= items; id++) {
+            index.onSaved(Item.builder()
+                .id(id)
+                .name(word(random) + " " + word(random))
+                .description(word(random) + " " + word(random) + " " + word(random))
+                .available(true)
+                .build());
+        }
+    }
+
+    @Benchmark
+    public List<Item> singleTerm() {
+        return index.search(vocabulary[1234], Pageable.unpaged());
+    }
+
+    @Benchmark
+    public List<Item> twoTerms() {
+        return index.search(vocabulary[1234] + " " + vocabulary[42], Pageable.unpaged());
+    }
+
+    @Benchmark
+    public List<Item> fuzzySingleTerm() {
+        return index.searchFuzzy(misspelt(vocabulary[1234]), Pageable.unpaged());
+    }
+
+    @Benchmark
+    public List<Item> fuzzyTwoTerms() {
+        return index.searchFuzzy(misspelt(vocabulary[1234]) + " " + misspelt(vocabulary[42]), Pageable.unpaged());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ItemSearchIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
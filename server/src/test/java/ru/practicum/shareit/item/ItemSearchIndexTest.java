@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .available(available)
+            .build();
+    }
+
+    private List<Long> search(String text) {
+        return index.search(text, Pageable.unpaged()).stream()
+            .map(Item::getId)
+            .collect(Collectors.toList());
+    }
+
+    private List<Long> fuzzySearch(String text) {
+        return index.searchFuzzy(text, Pageable.unpaged()).stream()
+            .map(Item::getId)
+            .collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByAvailableTrue())
+            .thenReturn(List.of(
+                item(1L, "Дрель", "Простая дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                item(3L, "Аккумулятор", "Запасной аккумулятор для дрели", true)
+            ));
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void searchIgnoresCaseAndMatchesPrefixesTest() {
+        assertEquals(List.of(1L), search("дРелЬ"));
+        assertEquals(List.of(1L, 3L), search("ДРЕЛ"));
+    }
+
+    @Test
+    void searchRequiresEveryTermTest() {
+        assertEquals(List.of(3L), search("аккумулятор дрели"));
+        assertTrue(search("аккумулятор молоток").isEmpty());
+        assertTrue(search("  ").isEmpty());
+    }
+
+    @Test
+    void searchOrdersByRelevanceTest() {
+        assertEquals(List.of(3L, 2L), search("аккумулятор"));
+        assertEquals(List.of(3L, 2L), search("аккум"));
+    }
+
+    @Test
+    void searchPagesRankedResultsTest() {
+        List<Long> secondPage = index.search("аккум", PageRequest.of(1, 1)).stream()
+            .map(Item::getId)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of(2L), secondPage);
+    }
+
+    @Test
+    void fuzzySearchToleratesTyposTest() {
+        assertTrue(search("отверка").isEmpty());
+        assertEquals(List.of(2L), fuzzySearch("отверка"));
+        assertEquals(List.of(3L, 2L), fuzzySearch("аккумулятр"));
+        assertEquals(List.of(1L), fuzzySearch("дрль"));
+        assertTrue(fuzzySearch("молоток").isEmpty());
+    }
+
+    @Test
+    void indexFollowsWritesTest() {
+        index.onSaved(item(4L, "Дрель ударная", "Мощная", true));
+        index.onSaved(item(1L, "Дрель", "Простая дрель", false));
+        index.onDeleted(3L);
+
+        assertEquals(List.of(4L), search("дрель"));
+        assertTrue(search("запасной").isEmpty());
+        assertTrue(fuzzySearch("запасной").isEmpty());
+        assertEquals(List.of(4L), fuzzySearch("дрль"));
+    }
+}
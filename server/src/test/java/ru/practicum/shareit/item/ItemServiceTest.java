@@ -1,17 +1,22 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareitServer;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -19,14 +24,20 @@ import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exception.BookingNoAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDtoMapper;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +62,21 @@ public class ItemServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemSearch itemSearch;
+
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @Spy
+    private ItemSearchCache itemSearchCache = new ItemSearchCache(100, 30_000, new SimpleMeterRegistry());
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
     @InjectMocks
     private ItemServiceImpl itemService;
     private Item item;
@@ -86,6 +112,26 @@ public class ItemServiceTest {
         assertEquals(expected, itemService.createItem(item, user.getId()));
     }
 
+    @Test
+    void createItemsTest() {
+        user = User.builder()
+            .id(1L)
+            .name("username")
+            .email("ilya@mail.ru")
+            .build();
+        List<Item> items = List.of(
+            Item.builder().name("drill").description("drill").available(true).build(),
+            Item.builder().name("saw").description("saw").available(true).build()
+        );
+        when(userRepository.findById(1L))
+            .thenReturn(Optional.of(user));
+        when(itemRepository.saveAll(items))
+            .thenReturn(items);
+
+        assertEquals(items, itemService.createItems(items, 1L));
+        assertEquals(user, items.get(1).getOwner());
+    }
+
     @Test
     void createItemUserNotFoundTest() {
         when(userRepository.findById(anyLong()))
@@ -184,8 +230,6 @@ public class ItemServiceTest {
     void updateItemTest() {
         user = User.builder()
             .id(1L)
-            .name("username")
-            .email("ilya@mail.ru")
             .build();
         item = Item.builder()
             .id(1L)
@@ -194,44 +238,48 @@ public class ItemServiceTest {
             .available(true)
             .owner(user)
             .build();
-        Item updated = Item.builder()
+        Item patch = Item.builder()
+            .name("updated")
+            .available(false)
+            .build();
+        Item expected = Item.builder()
             .id(1L)
             .name("updated")
-            .description("desc")
+            .description("description")
             .available(false)
             .owner(user)
             .build();
-        when(itemRepository.save(updated))
-            .thenReturn(updated);
+        when(itemRepository.updateOwned(1L, 1L, "updated", null, false))
+            .thenReturn(Optional.of(item));
 
-        assertEquals(updated, itemService.updateItem(updated, user.getId()));
+        assertEquals(expected, itemService.updateItem(1L, patch, 1L));
+        verify(itemRepository, never()).save(any(Item.class));
     }
 
     @Test
     void updateItemNoAccessTest() {
-        user = User.builder()
-            .id(1L)
-            .name("username")
-            .email("ilya@mail.ru")
-            .build();
-        item = Item.builder()
-            .id(1L)
-            .name("itemname")
-            .description("description")
-            .available(true)
-            .owner(user)
+        Item patch = Item.builder()
+            .name("updated")
             .build();
-        Item updated = Item.builder()
-            .id(1L)
+        when(itemRepository.updateOwned(1L, 2L, "updated", null, null))
+            .thenReturn(Optional.empty());
+        when(itemRepository.existsById(1L))
+            .thenReturn(true);
+
+        assertThrows(BookingNoAccessException.class, () -> itemService.updateItem(1L, patch, 2L));
+    }
+
+    @Test
+    void updateItemNotFoundTest() {
+        Item patch = Item.builder()
             .name("updated")
-            .description("desc")
-            .available(false)
-            .owner(user)
             .build();
-        when(itemRepository.save(updated))
-            .thenReturn(updated);
+        when(itemRepository.updateOwned(1L, 2L, "updated", null, null))
+            .thenReturn(Optional.empty());
+        when(itemRepository.existsById(1L))
+            .thenReturn(false);
 
-        assertThrows(BookingNoAccessException.class, () -> itemService.updateItem(updated, user.getId() + 1));
+        assertThrows(NotFoundException.class, () -> itemService.updateItem(1L, patch, 2L));
     }
 
     @Test
@@ -270,16 +318,25 @@ public class ItemServiceTest {
             .build();
         when(itemRepository.findAllByOwnerId(anyLong(), any(Sort.class)))
             .thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemIn(any(), any()))
+        when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(item.getId())), any(LocalDateTime.class)))
             .thenReturn(List.of(booking));
+        Comment comment = Comment.builder()
+            .id(1L)
+            .text("text")
+            .item(item)
+            .user(booker)
+            .build();
+        when(commentRepository.findAllByItemIn(List.of(item)))
+            .thenReturn(List.of(comment));
 
         List<OutgoingItemDto> expected = ItemDtoMapper.toOutgoingDtoList(List.of(item));
-        expected.get(0).setComments(List.of());
+        expected.get(0).setComments(List.of(comment));
         expected.get(0).setLastBooking(BookingDtoMapper.toOutForItemDto(booking));
 
         List<OutgoingItemDto> actual = itemService.getUserItems(1L);
 
         assertIterableEquals(expected, actual);
+        verify(commentRepository, never()).findAllByItem(any(Item.class));
     }
 
     @Test
@@ -291,15 +348,107 @@ public class ItemServiceTest {
             .available(true)
             .owner(user)
             .build();
-        when(itemRepository.findAllByNameContainingIgnoreCase(any(String.class)))
-            .thenReturn(List.of(item));
-        when(itemRepository.findAllByDescriptionContainingIgnoreCase(any(String.class)))
+        when(itemSearch.search("ite", Pageable.unpaged()))
             .thenReturn(List.of(item));
         List<Item> expected = List.of(item);
 
         List<Item> actual = itemService.search("ite");
 
         assertIterableEquals(expected, actual);
+        verify(itemRepository, never()).findAllByNameContainingIgnoreCase(any(String.class));
+    }
+
+    @Test
+    void searchByTextWithPagination() {
+        item = Item.builder()
+            .id(1L)
+            .name("itemname")
+            .description("description")
+            .available(true)
+            .build();
+        when(itemSearch.search("ite", PageRequest.of(2, 5)))
+            .thenReturn(List.of(item));
+
+        assertIterableEquals(List.of(item), itemService.search("ite", 10, 5));
+    }
+
+    @Test
+    void suggest() {
+        when(itemSuggestIndex.suggest("дре", ItemSuggestIndex.MAX_SUGGESTIONS))
+            .thenReturn(List.of("Дрель"));
+        when(itemSuggestIndex.suggest("дре", 3))
+            .thenReturn(List.of("Дрель"));
+
+        assertIterableEquals(List.of("Дрель"), itemService.suggest("дре", null));
+        assertIterableEquals(List.of("Дрель"), itemService.suggest("дре", 3));
+    }
+
+    @Test
+    void searchFuzzy() {
+        item = Item.builder()
+            .id(1L)
+            .name("itemname")
+            .description("description")
+            .available(true)
+            .build();
+        when(itemSearch.searchFuzzy("itme", Pageable.unpaged()))
+            .thenReturn(List.of(item));
+        when(itemSearch.searchFuzzy("itme", PageRequest.of(0, 5)))
+            .thenReturn(List.of(item));
+
+        assertIterableEquals(List.of(item), itemService.searchFuzzy("itme", null, null));
+        assertIterableEquals(List.of(item), itemService.searchFuzzy("itme", 0, 5));
+    }
+
+    @Test
+    void findAvailableTest() {
+        Item free = Item.builder().id(1L).name("free").available(true).build();
+        Item booked = Item.builder().id(2L).name("booked").available(true).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(free, booked));
+        when(availabilityIndex.isFree(1L, start, end))
+            .thenReturn(true);
+        when(availabilityIndex.isFree(2L, start, end))
+            .thenReturn(false);
+
+        List<Item> actual = itemService.findAvailable(start, end, "", 0, 10);
+
+        assertIterableEquals(List.of(free), actual);
+    }
+
+    @Test
+    void findAvailableWalksChunksUntilPageIsFullTest() {
+        List<Item> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            firstChunk.add(Item.builder().id(id).name("item" + id).available(true).build());
+        }
+        Item next = Item.builder().id(101L).name("item101").available(true).build();
+        Item last = Item.builder().id(102L).name("item102").available(true).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(0L), any(Pageable.class)))
+            .thenReturn(firstChunk);
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(100L), any(Pageable.class)))
+            .thenReturn(List.of(next, last));
+        when(availabilityIndex.isFree(anyLong(), eq(start), eq(end)))
+            .thenAnswer(invocation -> {
+                long id = invocation.getArgument(0);
+                return id % 50 == 0 || id > 100;
+            });
+
+        List<Item> actual = itemService.findAvailable(start, end, null, 1, 2);
+
+        assertIterableEquals(List.of(firstChunk.get(99), next), actual);
+        verify(availabilityIndex, never()).isFree(eq(102L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void findAvailableEmptyPeriodTest() {
+        LocalDateTime start = LocalDateTime.now();
+
+        assertThrows(ValidationException.class, () -> itemService.findAvailable(start, start, null, 0, 10));
     }
 
     @Test
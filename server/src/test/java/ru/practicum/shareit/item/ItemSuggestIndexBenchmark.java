@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Suggestions for short and long prefixes over 1M two-word item names with 2M random bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ItemSuggestIndexBenchmark {
+    private static final int ITEMS = 1_000_000;
+    private static final int WORDS = 20_000;
+    private static final int BOOKINGS = 2_000_000;
+
+    private ItemSuggestIndex index;
+    private String name;
+
+    private static String randomWord(Random random) {
+        char[] letters = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            vocabulary[i] = randomWord(random);
+        }
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of());
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.countBookingsByItem()).thenReturn(List.of());
+        index = new ItemSuggestIndex(itemRepository, bookingRepository);
+        index.rebuild();
+        for (long id = 1; id <= ITEMS; id++) {
+            index.onSaved(Item.builder()
+                .id(id)
+                .name(vocabulary[random.nextInt(WORDS)] + " " + vocabulary[random.nextInt(WORDS)])
+                .available(true)
+                .build());
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            index.onBooked(1L + random.nextInt(ITEMS));
+        }
+        name = vocabulary[1234] + " " + vocabulary[42];
+    }
+
+    @Benchmark
+    public List<String> oneLetter() {
+        return index.suggest(name.substring(0, 1), ItemSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<String> threeLetters() {
+        return index.suggest(name.substring(0, 3), ItemSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<String> secondWord() {
+        return index.suggest(name.substring(0, name.indexOf(' ') + 3), ItemSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    @Benchmark
+    public void booking() {
+        index.onBooked(1234L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ItemSuggestIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.suggest.ItemBookingCount;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSuggestIndexTest {
+    private ItemSuggestIndex index;
+
+    private static Item item(Long id, String name, boolean available) {
+        return Item.builder()
+            .id(id)
+            .name(name)
+            .description("description")
+            .available(available)
+            .build();
+    }
+
+    private static ItemBookingCount count(Long itemId, long bookings) {
+        ItemBookingCount count = mock(ItemBookingCount.class);
+        when(count.getItemId()).thenReturn(itemId);
+        when(count.getBookings()).thenReturn(bookings);
+        return count;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByAvailableTrue())
+            .thenReturn(List.of(
+                item(1L, "Дрель", true),
+                item(2L, "Дрель ударная", true),
+                item(3L, "Двери", true),
+                item(4L, "Отвертка", true)
+            ));
+        List<ItemBookingCount> counts = List.of(count(2L, 5), count(3L, 2), count(1L, 1));
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.countBookingsByItem()).thenReturn(counts);
+        index = new ItemSuggestIndex(itemRepository, bookingRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void suggestOrdersByBookingsTest() {
+        assertEquals(List.of("Дрель ударная", "Двери", "Дрель"), index.suggest("д", 10));
+        assertEquals(List.of("Дрель ударная", "Дрель"), index.suggest(" ДРЕ", 10));
+        assertEquals(List.of("Дрель ударная"), index.suggest("дрель ", 10));
+        assertEquals(List.of("Дрель ударная", "Двери"), index.suggest("", 2));
+        assertTrue(index.suggest("дрельк", 10).isEmpty());
+        assertTrue(index.suggest("молоток", 10).isEmpty());
+    }
+
+    @Test
+    void suggestLimitsToMaxSuggestionsTest() {
+        for (long id = 10; id < 30; id++) {
+            index.onSaved(item(id, "Дрель " + id, true));
+        }
+
+        assertEquals(ItemSuggestIndex.MAX_SUGGESTIONS, index.suggest("дрель", 100).size());
+    }
+
+    @Test
+    void indexFollowsWritesTest() {
+        index.onBooked(1L);
+        index.onBooked(1L);
+        index.onBooked(1L);
+        index.onBooked(1L);
+        index.onBooked(1L);
+        index.onSaved(item(5L, "дрель", true));
+        index.onBooked(5L);
+        index.onSaved(item(3L, "Двери", false));
+        index.onDeleted(4L);
+
+        assertEquals(List.of("Дрель", "Дрель ударная"), index.suggest("д", 10));
+        assertTrue(index.suggest("от", 10).isEmpty());
+
+        index.onDeleted(1L);
+        index.onSaved(item(2L, "Перфоратор", true));
+
+        assertEquals(List.of("дрель"), index.suggest("д", 10));
+        assertEquals(List.of("Перфоратор"), index.suggest("пер", 10));
+    }
+}
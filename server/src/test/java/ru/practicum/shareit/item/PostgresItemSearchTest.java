@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.ShareitServer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the PostgreSQL-only full-text and similarity queries against a real PostgreSQL,
+ * the production default for {@code shareit.item.search.mode}. Skipped where Docker is not available.
+ */
+@Transactional
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(classes = ShareitServer.class, properties = {
+    "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+    "shareit.item.search.mode=database",
+    "shareit.booking.expiry.enabled=false"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PostgresItemSearchTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14");
+
+    private final ItemSearch itemSearch;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemService itemService;
+    private final UserService userService;
+    private User owner;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private Item item(String name, String description, boolean available) {
+        return itemService.createItem(
+            Item.builder().name(name).description(description).available(available).build(), owner.getId()
+        );
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+            .map(Item::getId)
+            .collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(User.builder().name("owner").email("owner@mail.ru").build());
+    }
+
+    @Test
+    void searchMatchesEveryTermAsPrefixTest() {
+        Item drill = item("Hammer drill", "Corded", true);
+        item("Hammer", "Claw", true);
+        Item cyrillic = item("Дрель ударная", "Аккумуляторная", true);
+
+        assertEquals(List.of(drill.getId()), ids(itemSearch.search("hamm, DRI!", PageRequest.of(0, 10))));
+        assertEquals(List.of(cyrillic.getId()), ids(itemSearch.search("дрел удар", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void searchRanksNameAboveDescriptionAndPagesTest() {
+        Item drillBits = item("Bits", "For a drill", true);
+        Item drills = item("Drills", "Cordless", true);
+        item("Unavailable drill", "Broken", false);
+
+        assertEquals(
+            List.of(drills.getId(), drillBits.getId()),
+            ids(itemSearch.search("drill", PageRequest.of(0, 10)))
+        );
+        assertEquals(List.of(drillBits.getId()), ids(itemSearch.search("drill", PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void fuzzySearchUsesInMemoryThresholdTest() {
+        Item drill = item("Hammer drill", "Corded", true);
+        item("Socket set", "Metric sockets", true);
+
+        assertEquals(List.of(drill.getId()), ids(itemSearch.searchFuzzy("drell", Pageable.unpaged())));
+    }
+
+    @Test
+    void fuzzySearchRanksCloserWordsFirstTest() {
+        Item drillBits = item("Bits", "For a drill", true);
+        Item drills = item("Drills", "Cordless", true);
+        item("Unavailable drill", "Broken", false);
+
+        assertEquals(
+            List.of(drills.getId(), drillBits.getId()),
+            ids(itemSearch.searchFuzzy("drils", Pageable.unpaged()))
+        );
+    }
+
+    @Test
+    void fuzzySearchUsesTrigramIndexesTest() {
+        item("Hammer drill", "Corded", true);
+        item("Socket set", "Metric sockets", true);
+        // a handful of rows is cheaper to scan, so only ask whether the indexes can serve the query
+        jdbcTemplate.getJdbcTemplate().execute("SET LOCAL enable_seqscan = off");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+            "EXPLAIN " + ItemRepository.SIMILARITY_QUERY, Map.of("text", "drell"), String.class
+        ));
+
+        assertTrue(plan.contains("Bitmap Index Scan on idx_item_name_trgm"), plan);
+        assertTrue(plan.contains("Bitmap Index Scan on idx_item_description_trgm"), plan);
+    }
+}
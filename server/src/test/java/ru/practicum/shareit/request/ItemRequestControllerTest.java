@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.request.dto.IncomingItemRequestDto;
@@ -32,6 +33,8 @@ public class ItemRequestControllerTest {
     ObjectMapper objectMapper;
     @MockBean
     ItemRequestService requestService;
+    @MockBean
+    ResourceVersions resourceVersions;
     @Autowired
     private MockMvc mockMvc;
     private ItemRequest request;
@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.user.dto.IncomingUserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 import ru.practicum.shareit.user.model.User;
@@ -17,6 +18,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +33,8 @@ public class UserControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private UserService userService;
+    @MockBean
+    private ResourceVersions resourceVersions;
     private IncomingUserDto dto;
     private User user;
 
@@ -78,9 +82,7 @@ public class UserControllerTest {
     @Test
     @SneakyThrows
     void updateUserTest() {
-        when(userService.updateUser(user))
-            .thenReturn(user);
-        when(userService.getUserById(anyLong()))
+        when(userService.updateUser(anyLong(), any(User.class)))
             .thenReturn(user);
 
         mockMvc.perform(patch("/users/1")
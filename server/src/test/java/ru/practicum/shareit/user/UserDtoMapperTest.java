@@ -91,4 +91,21 @@ public class UserDtoMapperTest {
 
         assertIterableEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void partialUpdateUserTest() {
+        User user = User.builder()
+            .id(1L)
+            .name("name")
+            .email("email@mail.ru")
+            .build();
+        User patch = User.builder()
+            .id(2L)
+            .email("updated@mail.ru")
+            .build();
+
+        UserDtoMapper.partialUpdateUser(patch, user);
+
+        assertEquals(User.builder().id(1L).name("name").email("updated@mail.ru").build(), user);
+    }
+}
@@ -65,14 +65,30 @@ public class UserServiceTest {
     void updateUserTest() {
         userService.createUser(user);
 
-        User forUpdate = User.builder()
+        User expected = User.builder()
             .id(user.getId())
             .name("updated")
             .email(user.getEmail())
             .build();
-        userService.updateUser(forUpdate);
 
-        assertEquals(forUpdate, userService.getUserById(user.getId()));
+        assertEquals(expected, userService.updateUser(user.getId(), User.builder().name("updated").build()));
+        assertEquals(expected, userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void updateUserNonUniqueEmailTest() {
+        userService.createUser(user);
+        User other = userService.createUser(User.builder().name("other").email("other@mail.ru").build());
+
+        assertThrows(
+            NonUniqueEmailException.class,
+            () -> userService.updateUser(other.getId(), User.builder().email(user.getEmail()).build())
+        );
+    }
+
+    @Test
+    void updateUserNotFoundTest() {
+        assertThrows(NotFoundException.class, () -> userService.updateUser(100L, User.builder().name("x").build()));
     }
 
     @Test